@@ -0,0 +1,94 @@
+package friday.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import friday.exception.FridayException;
+import friday.model.Task;
+import friday.model.TaskList;
+import friday.model.ToDo;
+import friday.storage.Durability;
+import friday.storage.Storage;
+import friday.ui.Ui;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Reads of a shared {@link TaskList} while one thread keeps adding and removing tasks.
+ * The {@code optimistic} group reads single tasks and pages; the {@code locked} group searches under the
+ * read lock. Vary the reader count with e.g. {@code -tg 1,1}, {@code -tg 1,2}, {@code -tg 1,4} to see read
+ * throughput scale with cores while the writer runs.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConcurrentTaskListBenchmark {
+    @Param({"10000", "100000"})
+    int size;
+
+    private final Ui ui = new Ui();
+    private TaskList tasks;
+    private Storage storage;
+
+    @Setup
+    public void setUp() throws IOException {
+        tasks = new TaskList();
+        tasks.setAll(SyntheticTasks.generate(size, 6));
+        // journal in memory until exit; every 1024 records fold into one queued snapshot
+        storage = new Storage(Files.createTempDirectory("friday-bench").resolve("tasks.txt"),
+                Storage.DEFAULT_COMPACT_EVERY, Durability.ON_EXIT, 0);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        storage.close();
+    }
+
+    private void churn() throws IOException, FridayException {
+        tasks.add(new ToDo("benchmark churn"), ui, storage);
+        tasks.remove(tasks.size(), ui, storage);
+    }
+
+    @Benchmark
+    @Group("optimistic")
+    @GroupThreads(1)
+    public void optimisticWriter() throws IOException, FridayException {
+        churn();
+    }
+
+    @Benchmark
+    @Group("optimistic")
+    @GroupThreads(4)
+    public List<Task> optimisticReader() throws FridayException {
+        int n = ThreadLocalRandom.current().nextInt(size - 40);
+        tasks.get(n + 1);
+        return tasks.page(n, n + 40);
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(1)
+    public void lockedWriter() throws IOException, FridayException {
+        churn();
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(4)
+    public List<Task> lockedReader() {
+        return tasks.find("extremis party 4");
+    }
+}
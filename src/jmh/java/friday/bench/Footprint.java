@@ -0,0 +1,52 @@
+package friday.bench;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.function.Supplier;
+
+import friday.model.CompactTaskList;
+import friday.model.TaskList;
+import friday.model.TaskStore;
+
+/**
+ * Prints the retained heap per task of a plain {@code List<Task>}, a {@link TaskList} (tasks plus its
+ * indexes) and a {@link CompactTaskList}, measured as the heap in use after garbage collection.
+ * Usage: {@code Footprint [size]}; run with a heap large enough for the object model, e.g. {@code -Xmx2g}.
+ */
+public final class Footprint {
+    private Footprint() {}
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        System.out.printf("%,d tasks%n", size);
+        report("List<Task>", size, () -> new ArrayList<>(SyntheticTasks.generate(size, 1)));
+        report("TaskList", size, () -> {
+            TaskList tasks = new TaskList();
+            tasks.setAll(SyntheticTasks.generate(size, 1));
+            return tasks;
+        });
+        report("CompactTaskList", size, () -> {
+            TaskStore tasks = new CompactTaskList();
+            tasks.setAll(SyntheticTasks.generate(size, 1));
+            return tasks;
+        });
+    }
+
+    private static void report(String name, int size, Supplier<Object> build) {
+        long before = usedAfterGc();
+        Object kept = build.get();
+        long after = usedAfterGc();
+        System.out.printf("  %-16s %6.1f bytes/task%n", name, (after - before) / (double) size);
+        Reference.reachabilityFence(kept);
+    }
+
+    private static long usedAfterGc() {
+        Runtime rt = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, rt.totalMemory() - rt.freeMemory());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,96 @@
+package friday.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+
+import friday.exception.FridayException;
+import friday.logic.Parser;
+import friday.model.TaskList;
+import friday.storage.Storage;
+import friday.ui.Response;
+import friday.ui.Ui;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link Parser#parseDT(String)} against the original formatter-per-call loop, and {@link Parser#handle}
+ * dispatch of a read-only command over lists of different sizes. Each group has its own state, so date
+ * parsing runs once per input shape and the queries once per list size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParserBenchmark {
+
+    /** One date/time input per accepted shape. */
+    @State(Scope.Benchmark)
+    public static class Dates {
+        @Param({"2019-10-15 1800", "2019-10-15", "15/10/2019 1800", "15/10/2019"})
+        String when;
+    }
+
+    /** A resident list of {@code size} synthetic tasks and a parser to query it through. */
+    @State(Scope.Benchmark)
+    public static class Lists {
+        @Param({"100", "10000", "1000000"})
+        int size;
+
+        final Parser parser = new Parser();
+        final Ui ui = new Ui();
+        TaskList tasks;
+        Storage storage;
+
+        @Setup
+        public void setUp() throws IOException {
+            SyntheticTasks.silenceStdout();
+            tasks = new TaskList();
+            tasks.setAll(SyntheticTasks.generate(size, 4));
+            storage = new Storage(Files.createTempDirectory("friday-bench").resolve("tasks.txt"));
+        }
+    }
+
+    @Benchmark
+    public LocalDateTime parseDT(Dates d) throws FridayException {
+        return Parser.parseDT(d.when);
+    }
+
+    @Benchmark
+    public LocalDateTime parseDTLegacy(Dates d) throws FridayException {
+        return legacyParseDT(d.when);
+    }
+
+    @Benchmark
+    public Response handleFind(Lists l) throws Exception {
+        return l.parser.handle("find extremis party 7", l.tasks, l.ui, l.storage);
+    }
+
+    @Benchmark
+    public Response handleOn(Lists l) throws Exception {
+        return l.parser.handle("on 2000-03-01", l.tasks, l.ui, l.storage);
+    }
+
+    /** The implementation {@link Parser#parseDT(String)} replaced, kept here as the baseline. */
+    private static LocalDateTime legacyParseDT(String s) throws FridayException {
+        s = s.trim();
+        for (String p : new String[]{"yyyy-MM-dd HHmm", "yyyy-MM-dd", "d/M/yyyy HHmm", "d/M/yyyy"}) {
+            DateTimeFormatter f = DateTimeFormatter.ofPattern(p);
+            try {
+                return p.contains("HHmm") ? LocalDateTime.parse(s, f) : LocalDate.parse(s, f).atStartOfDay();
+            } catch (DateTimeParseException ignored) {
+                // try the next pattern
+            }
+        }
+        throw new FridayException("Cannot parse date/time.");
+    }
+}
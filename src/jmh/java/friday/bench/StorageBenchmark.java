@@ -0,0 +1,69 @@
+package friday.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import friday.model.Task;
+import friday.storage.Storage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Full-file {@link Storage#load()} and {@link Storage#save(List)} in the text and binary formats.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageBenchmark {
+    @Param({"100", "10000", "100000", "1000000"})
+    int size;
+
+    @Param({"tasks.txt", "tasks.bin"})
+    String fileName;
+
+    private Path dir;
+    private Storage storage;
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("friday-bench");
+        storage = new Storage(dir.resolve(fileName));
+        tasks = SyntheticTasks.generate(size, 1);
+        storage.save(tasks);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        storage.close();
+        try (var files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                Files.delete(p);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    @Benchmark
+    public List<Task> load() throws IOException {
+        return storage.load();
+    }
+
+    /** Encodes on the caller and waits for the background write, so disk time is included. */
+    @Benchmark
+    public void save() throws IOException {
+        storage.save(tasks);
+        storage.flush();
+    }
+}
@@ -0,0 +1,58 @@
+package friday.bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import friday.model.Deadline;
+import friday.model.Event;
+import friday.model.Task;
+import friday.model.ToDo;
+
+/**
+ * Generates task lists shaped like {@code data/tasks.txt}: an even mix of todos, deadlines and events
+ * with short multi-word descriptions and minute-resolution times.
+ */
+final class SyntheticTasks {
+    private static final String[] WORDS = {
+        "read", "book", "return", "solve", "extremis", "party", "meeting", "project", "report", "call",
+        "email", "review", "lab", "quiz", "tutorial", "groceries", "gym", "dentist", "Maya", "Hansen"
+    };
+    static final LocalDateTime BASE = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private SyntheticTasks() {}
+
+    static List<Task> generate(int size, long seed) {
+        Random r = new Random(seed);
+        List<Task> out = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String desc = WORDS[r.nextInt(WORDS.length)] + " " + WORDS[r.nextInt(WORDS.length)] + " " + i;
+            LocalDateTime at = BASE.plusMinutes(r.nextInt(60 * 24 * 365));
+            Task t;
+            switch (i % 3) {
+            case 0: t = new ToDo(desc); break;
+            case 1: t = new Deadline(desc, at); break;
+            default: t = new Event(desc, at, at.plusHours(1 + r.nextInt(48))); break;
+            }
+            t.setDone(r.nextInt(4) == 0);
+            out.add(t);
+        }
+        return out;
+    }
+
+    static List<String> lines(List<Task> tasks) {
+        List<String> out = new ArrayList<>(tasks.size());
+        for (Task t : tasks) {
+            out.add(t.toStorage());
+        }
+        return out;
+    }
+
+    /** Routes {@code System.out} to nowhere so that Ui output does not dominate measurements. */
+    static void silenceStdout() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+}
@@ -0,0 +1,50 @@
+package friday.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import friday.model.Task;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@link Task#fromStorage(String)} and {@link Task#toStorage()} over a whole synthetic list per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskCodecBenchmark {
+    @Param({"100", "10000", "100000", "1000000"})
+    int size;
+
+    private List<Task> tasks;
+    private List<String> lines;
+
+    @Setup
+    public void setUp() {
+        tasks = SyntheticTasks.generate(size, 2);
+        lines = SyntheticTasks.lines(tasks);
+    }
+
+    @Benchmark
+    public void fromStorage(Blackhole bh) {
+        for (String l : lines) {
+            bh.consume(Task.fromStorage(l));
+        }
+    }
+
+    @Benchmark
+    public void toStorage(Blackhole bh) {
+        for (Task t : tasks) {
+            bh.consume(t.toStorage());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package friday.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import friday.model.Task;
+import friday.model.TaskList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link TaskList#find(String)} for a rare, a common and a short keyword, and {@link TaskList#sortByType()}.
+ * The keyword has its own state, so sorting runs once per list size rather than once per keyword as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskListBenchmark {
+
+    /** A resident list of {@code size} synthetic tasks, and the tasks in generation order. */
+    @State(Scope.Benchmark)
+    public static class Lists {
+        @Param({"100", "10000", "100000", "1000000"})
+        int size;
+
+        List<Task> generated;
+        TaskList tasks;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            generated = SyntheticTasks.generate(size, 3);
+            tasks = new TaskList();
+            tasks.setAll(generated);
+        }
+    }
+
+    /** The keyword searched for. */
+    @State(Scope.Benchmark)
+    public static class Keywords {
+        @Param({"extremis party 4", "book", "gy"})
+        String keyword;
+    }
+
+    @Benchmark
+    public List<Task> find(Lists l, Keywords k) {
+        return l.tasks.find(k.keyword);
+    }
+
+    /** Sorts a list restored to generation order before each call, so every call does real work. */
+    @State(Scope.Thread)
+    public static class Unsorted {
+        TaskList tasks;
+
+        @Setup(Level.Invocation)
+        public void reset(Lists l) {
+            if (tasks == null) {
+                tasks = new TaskList();
+            }
+            tasks.setAll(l.generated);
+        }
+    }
+
+    @Benchmark
+    public void sortByType(Unsorted s) {
+        s.tasks.sortByType();
+    }
+}
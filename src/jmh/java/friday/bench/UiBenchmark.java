@@ -0,0 +1,53 @@
+package friday.bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import friday.model.Task;
+import friday.ui.ConsoleRenderer;
+import friday.ui.Response;
+import friday.ui.Ui;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link Ui#showList(List, int, int)} over the whole list, and {@link ConsoleRenderer} streaming it to a
+ * discarding stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UiBenchmark {
+    @Param({"100", "10000", "100000", "1000000"})
+    int size;
+
+    private final Ui ui = new Ui();
+    private final ConsoleRenderer renderer = new ConsoleRenderer(new PrintStream(OutputStream.nullOutputStream()));
+    private List<Task> tasks;
+    private Response listed;
+
+    @Setup
+    public void setUp() {
+        tasks = SyntheticTasks.generate(size, 5);
+        listed = ui.showList(tasks, 0, tasks.size());
+    }
+
+    @Benchmark
+    public Response showList() {
+        return ui.showList(tasks, 0, tasks.size());
+    }
+
+    @Benchmark
+    public void render() {
+        renderer.render(listed);
+    }
+}
@@ -0,0 +1,37 @@
+import javafx.animation.AnimationTimer;
+
+/**
+ * Measures the time between JavaFX pulses, to check that the window keeps rendering while commands run.
+ * Enabled with {@code -Dfriday.frameStats=true}; {@link #report()} summarises the frames since the last report.
+ */
+public class FrameMonitor extends AnimationTimer {
+    /** Frames slower than this (about two missed 60 Hz frames) count as stalls. */
+    private static final long STALL_NANOS = 33_000_000L;
+
+    private long last;
+    private long frames;
+    private long stalls;
+    private long worst;
+
+    @Override
+    public void handle(long now) {
+        if (last != 0) {
+            long gap = now - last;
+            frames++;
+            worst = Math.max(worst, gap);
+            if (gap > STALL_NANOS) {
+                stalls++;
+            }
+        }
+        last = now;
+    }
+
+    /** Returns a one-line summary and starts a new measurement window. Call on the FX thread. */
+    public String report() {
+        String r = String.format("frames=%d stalls(>33ms)=%d worst=%.1fms", frames, stalls, worst / 1e6);
+        frames = 0;
+        stalls = 0;
+        worst = 0;
+        return r;
+    }
+}
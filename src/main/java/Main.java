@@ -23,8 +23,14 @@ public class Main extends Application {
             stage.setScene(scene);
             fxmlLoader.<MainWindow>getController().setDuke(friday);  // inject the Duke instance
             stage.show();
+            friday.shown();
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    @Override
+    public void stop() {
+        friday.close();  // flush write-behind persistence before the JVM exits
+    }
 }
@@ -1,51 +1,148 @@
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import friday.app.Friday;
+import friday.model.Task;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
 /**
  * Controller for the main GUI.
+ * <p>
+ * Commands run one at a time on a background thread, and replies are posted back to the
+ * JavaFX thread, so the window stays responsive while a slow command runs. Both the chat transcript
+ * and the task view are virtualized {@link ListView}s: only visible rows get cells, and cells are reused.
+ * The transcript keeps the last {@code friday.historyLimit} messages (default {@value #DEFAULT_HISTORY}).
  */
 public class MainWindow extends AnchorPane {
+    private static final int DEFAULT_HISTORY = 500;
+    /** Replies longer than this many lines are cut short in the transcript; the Tasks tab shows everything. */
+    private static final int MAX_REPLY_LINES = 50;
+
     @FXML
-    private ScrollPane scrollPane;
+    private ListView<Message> transcript;
     @FXML
-    private VBox dialogContainer;
+    private ListView<Task> taskView;
     @FXML
     private TextField userInput;
     @FXML
     private Button sendButton;
 
     private Friday friday;
+    private TaskListModel taskModel;
+
+    private final ObservableList<Message> messages = FXCollections.observableArrayList();
+    private final int historyLimit = Integer.getInteger("friday.historyLimit", DEFAULT_HISTORY);
+    private final ExecutorService engine = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "friday-engine");
+        t.setDaemon(true);
+        return t;
+    });
+    private FrameMonitor frames;
 
     private Image userImage = new Image(this.getClass().getResourceAsStream("/images/DaUser.png"));
     private Image fridayImage = new Image(this.getClass().getResourceAsStream("/images/Friday.png"));
 
+    /** One transcript entry. */
+    private static class Message {
+        final String text;
+        final boolean fromUser;
+
+        Message(String text, boolean fromUser) {
+            this.text = text;
+            this.fromUser = fromUser;
+        }
+    }
+
     @FXML
     public void initialize() {
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+        transcript.setItems(messages);
+        transcript.setCellFactory(lv -> new ListCell<>() {
+            private final DialogBox box = new DialogBox();
+
+            {
+                box.prefWidthProperty().bind(lv.widthProperty().subtract(20));
+                setPrefWidth(0);
+            }
+
+            @Override
+            protected void updateItem(Message m, boolean empty) {
+                super.updateItem(m, empty);
+                if (empty || m == null) {
+                    setGraphic(null);
+                } else {
+                    box.show(m.text, m.fromUser ? userImage : fridayImage, m.fromUser);
+                    setGraphic(box);
+                }
+            }
+        });
+        taskView.setCellFactory(lv -> new ListCell<>() {
+            @Override
+            protected void updateItem(Task t, boolean empty) {
+                super.updateItem(t, empty);
+                setText(empty || t == null ? null : (getIndex() + 1) + "." + t.display());
+            }
+        });
+        if (Boolean.getBoolean("friday.frameStats")) {
+            frames = new FrameMonitor();
+            frames.start();
+        }
     }
 
     /** Injects the Duke instance */
     public void setDuke(Friday f) {
         friday = f;
+        taskModel = new TaskListModel(f.tasks());
+        taskView.setItems(taskModel);
+        f.whenLoaded(() -> Platform.runLater(taskModel::refresh));
+        f.startReminders(text -> Platform.runLater(() -> append(new Message(text, false))));
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing Duke's reply and then appends them to
-     * the dialog container. Clears the user input after processing.
+     * Echoes the user input in the transcript, clears the input, and runs the command in the background.
+     * Friday's reply is appended once it is ready, and the task view is refreshed.
      */
     @FXML
-    private void handleUserInput() throws Exception {
+    private void handleUserInput() {
         String input = userInput.getText();
-        String response = friday.getResponse(input);
-        dialogContainer.getChildren().addAll(
-                DialogBox.getUserDialog(input, userImage),
-                DialogBox.getFridayDialog(response, fridayImage)
-        );
         userInput.clear();
+        append(new Message(input, true));
+        long start = System.nanoTime();
+        engine.execute(() -> {
+            String response = friday.getResponse(input);
+            Platform.runLater(() -> {
+                append(new Message(shorten(response), false));
+                taskModel.refresh();
+                if (frames != null) {
+                    System.err.printf("[%s] %.1fms, %s%n", input, (System.nanoTime() - start) / 1e6, frames.report());
+                }
+            });
+        });
+    }
+
+    private void append(Message m) {
+        messages.add(m);
+        if (messages.size() > historyLimit) {
+            messages.remove(0, messages.size() - historyLimit);
+        }
+        transcript.scrollTo(messages.size() - 1);
+    }
+
+    private static String shorten(String reply) {
+        int at = -1;
+        for (int i = 0; i < MAX_REPLY_LINES; i++) {
+            at = reply.indexOf('\n', at + 1);
+            if (at < 0) {
+                return reply;
+            }
+        }
+        return reply.substring(0, at) + "\n ... (see the Tasks tab for the full list)";
     }
 }
@@ -0,0 +1,49 @@
+import java.util.Collections;
+
+import friday.exception.FridayException;
+import friday.model.Task;
+import friday.model.TaskStore;
+import javafx.collections.ObservableListBase;
+
+/**
+ * Read-only observable view of a {@link TaskStore} for the virtualized task view.
+ * Nothing is copied: cells read tasks from the list one at a time, and only visible rows are ever requested.
+ * Call {@link #refresh()} on the JavaFX thread after a command so the view picks up changes.
+ */
+public class TaskListModel extends ObservableListBase<Task> {
+    private final TaskStore tasks;
+    private int size;
+
+    public TaskListModel(TaskStore tasks) {
+        this.tasks = tasks;
+        refresh();
+    }
+
+    /** Takes the current contents of the task list and tells listeners that every row may have changed. */
+    public void refresh() {
+        int oldSize = size;
+        size = tasks.size();
+        beginChange();
+        if (oldSize > 0) {
+            nextRemove(0, Collections.nCopies(oldSize, (Task) null));
+        }
+        if (size > 0) {
+            nextAdd(0, size);
+        }
+        endChange();
+    }
+
+    @Override
+    public Task get(int index) {
+        try {
+            return tasks.get(index + 1);
+        } catch (FridayException e) {
+            return null;                    // the list shrank after the last refresh; the next one fixes it
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
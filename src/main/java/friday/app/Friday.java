@@ -1,13 +1,23 @@
 package friday.app;
 
-import java.io.ByteArrayOutputStream;
-import java.io.PrintStream;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.Clock;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import friday.logic.BatchRunner;
+import friday.model.TaskStore;
+import friday.ui.ConsoleRenderer;
+import friday.ui.GuiRenderer;
+import friday.ui.Response;
 import friday.ui.Ui;
-import friday.storage.Storage;
-import friday.logic.Parser;
-import friday.model.TaskList;
 import friday.exception.FridayException;
 
 
@@ -16,29 +26,80 @@ import friday.exception.FridayException;
  * <p>
  * Supported commands:
  * <ul>
- *   <li>{@code list} – show tasks</li>
+ *   <li>{@code list [page] [size]} / {@code list --from <n> --to <m>} – show tasks, a page at a time</li>
  *   <li>{@code todo <desc>} – add a todo</li>
  *   <li>{@code deadline <desc> /by <when>} – add a deadline</li>
  *   <li>{@code event <desc> /from <start> /to <end>} – add an event</li>
  *   <li>{@code mark <n>} / {@code unmark <n>} – toggle completion</li>
  *   <li>{@code delete <n>} – remove task</li>
+ *   <li>{@code undo} / {@code redo} – take back the latest change, or make it again</li>
+ *   <li>{@code find <keyword> [--from <n> --to <m>]} – tasks containing a keyword</li>
+ *   <li>{@code due <when>} – deadlines due by a date/time</li>
+ *   <li>{@code on <date>} / {@code between <start> /to <end>} – deadlines and events in a period</li>
+ *   <li>{@code sort} / {@code sort by <type|time|done|desc> [page] [size]} – reorder, or view in another order</li>
+ *   <li>{@code run <file> [/every <n>]} – run a script of commands as one batch</li>
+ *   <li>{@code stats} – task counts, storage counters and per-command latencies</li>
  *   <li>{@code bye} – exit</li>
  * </ul>
  */
 public class Friday {
+    private final Session session = new Session(Session.DEFAULT_FILE);
+    private final Ui ui = new Ui();
+    private final ReminderScheduler reminders =
+            new ReminderScheduler(session.tasks(), ui, Clock.systemDefaultZone());
+    private final CompletableFuture<Integer> loaded;
+    private volatile String loadError;
+
+    /**
+     * Creates the GUI engine and starts loading the task file in the background, so the window opens at
+     * once; later messages reuse the in-memory list.
+     */
+    public Friday() {
+        loaded = session.loadInBackground().whenComplete((skipped, e) -> {
+            if (e != null) {
+                loadError = "Failed to load file: " + e.getMessage();
+            } else if (skipped > 0) {
+                loadError = skippedMessage(skipped);
+            }
+        });
+    }
+
+    /**
+     * Runs the CLI. With {@code --batch <file>} (or {@code --batch -} for standard input) the commands are
+     * run as one batch that is saved once, optionally checkpointed with {@code --every <n>}, and the
+     * program exits afterwards. With {@code --serve <port>} the task list is shared with HTTP clients instead;
+     * see {@link Server}.
+     */
     public static void main(String[] args) {
         Ui ui = new Ui();
-        Storage storage = new Storage(Paths.get("data", "tasks.txt"));
-        TaskList tasks = new TaskList();
+        ConsoleRenderer out = new ConsoleRenderer(System.out);
+        Session session = new Session(Session.DEFAULT_FILE);
 
-        try {
-            tasks.setAll(storage.load());                 // load on startup
-        } catch (Exception e) {
-            ui.error("Failed to load file: " + e.getMessage());
+        session.loadInBackground().whenComplete((skipped, e) -> {   // greet at once; commands wait as needed
+            if (e != null) {
+                out.render(ui.error("Failed to load file: " + e.getMessage()));
+            } else if (skipped > 0) {
+                out.render(ui.error(skippedMessage(skipped)));
+            }
+        });
+
+        String serve = option(args, "--serve");
+        if (serve != null) {
+            serve(session, ui, out, Integer.parseInt(serve));
+            return;
+        }
+
+        String batch = option(args, "--batch");
+        if (batch != null) {
+            out.render(runBatch(session, ui, batch, option(args, "--every")));
+            close(session, ui, out);
+            return;
         }
 
-        ui.greet();
-        Parser parser = new Parser();
+        out.render(ui.greet());
+        session.prompted();
+        ReminderScheduler reminders = new ReminderScheduler(session.tasks(), ui, Clock.systemDefaultZone());
+        reminders.start(out::render);
 
         Scanner sc = new Scanner(System.in);
         while (sc.hasNextLine()) {
@@ -46,53 +107,124 @@ public class Friday {
             if (line.isEmpty()) {
                 continue;
             }
-            try {
-                boolean exit = parser.handle(line, tasks, ui, storage); // parse + execute
-                if (exit) {
-                    break;
-                }
-            } catch (FridayException e) {
-                ui.error(e.getMessage());
-            } catch (Exception e) {
-                ui.error("Unexpected error: " + e.getMessage());
+            Response r = respond(session, ui, line);     // parse + execute
+            long start = System.nanoTime();
+            out.render(r);
+            session.rendered(line, System.nanoTime() - start);
+            if (r.isExit()) {
+                break;
             }
         }
+        reminders.stop();
+        close(session, ui, out);
+    }
+
+    /** Returns the resident task list, e.g. for the GUI's task view. */
+    public TaskStore tasks() {
+        return session.tasks();
+    }
+
+    /** Runs {@code then} once the task file has been read, or has failed to load. */
+    public void whenLoaded(Runnable then) {
+        loaded.whenComplete((skipped, e) -> then.run());
+    }
+
+    /** Notes that the window is showing, for the startup time in {@code stats}. */
+    public void shown() {
+        session.prompted();
+    }
+
+    /** Starts passing reminders of upcoming deadlines and events to {@code sink}, from a timer thread. */
+    public void startReminders(Consumer<String> sink) {
+        reminders.start(r -> sink.accept(GuiRenderer.render(r)));
     }
-    /**
-     * Generates a response for the user's chat message in GUI mode.
-     */
-    public String getResponse(String input) {
-        Ui ui = new Ui();
-        Storage storage = new Storage(Paths.get("data", "tasks.txt"));
-        TaskList tasks = new TaskList();
 
+    /** Flushes pending writes of the GUI session; called when the window closes. */
+    public void close() {
+        reminders.stop();
         try {
-            tasks.setAll(storage.load());                 // load on startup
+            session.close();
         } catch (Exception e) {
-            System.out.println("Failed to load file: " + e.getMessage());
+            System.err.println("Failed to save tasks: " + e.getMessage());
         }
+    }
 
-        Parser parser = new Parser();
+    private static void close(Session session, Ui ui, ConsoleRenderer out) {
+        try {
+            session.close();
+        } catch (Exception e) {
+            out.render(ui.error("Failed to save tasks: " + e.getMessage()));
+        }
+    }
 
-        // redirect System.out to capture prints, since existing code uses System.out.printl
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        PrintStream ps = new PrintStream(baos);
-        PrintStream oldOut = System.out;
-        System.setOut(ps);
+    private static void serve(Session session, Ui ui, ConsoleRenderer out, int port) {
+        Server server = new Server(session);
+        InetSocketAddress at;
+        try {
+            at = server.start(port);
+        } catch (Exception e) {
+            out.render(ui.error("Cannot start server: " + e.getMessage()));
+            close(session, ui, out);
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            close(session, ui, out);
+        }, "friday-server-stop"));
+        out.render(ui.serving("http://" + at.getHostString() + ":" + at.getPort() + "/command"));
+    }
 
+    /** Runs one command, turning any failure into an error reply. */
+    static Response respond(Session session, Ui ui, String cmd) {
         try {
-            parser.handle(input, tasks, ui, storage);   // may print or throw
+            return session.handle(cmd, ui);
         } catch (FridayException e) {
-            // capture the exception’s message as the “response”
-            System.out.println(e.getMessage());
+            return ui.error(e.getMessage());
         } catch (Exception e) {
-            // catch any other unexpected exception
-            System.out.println(e.getMessage());
-        } finally {
-            System.out.flush();
-            System.setOut(oldOut);
+            return ui.error("Unexpected error: " + e.getMessage());
         }
+    }
 
-        return baos.toString().trim();
+    private static Response runBatch(Session session, Ui ui, String source, String every) {
+        try {
+            List<String> script = source.equals("-")
+                    ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)).lines()
+                            .collect(Collectors.toList())
+                    : Files.readAllLines(Paths.get(source), StandardCharsets.UTF_8);
+            return session.runBatch(script, ui, every == null ? BatchRunner.AT_END : Integer.parseInt(every));
+        } catch (FridayException e) {
+            return ui.error(e.getMessage());
+        } catch (Exception e) {
+            return ui.error("Unexpected error: " + e.getMessage());
+        }
+    }
+
+    /** Returns the value following {@code name} in {@code args}, or null if absent. */
+    private static String option(String[] args, String name) {
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return null;
+    }
+
+    private static String skippedMessage(int skipped) {
+        return "Skipped " + skipped + " malformed line(s) in the task file.";
+    }
+
+    /**
+     * Generates a response for the user's chat message in GUI mode.
+     */
+    public String getResponse(String input) {
+        Response r = respond(session, ui, input);
+        long start = System.nanoTime();
+        String text = GuiRenderer.render(r);
+        session.rendered(input, System.nanoTime() - start);
+        if (loadError != null) {
+            text = loadError + "\n" + text;
+            loadError = null;
+        }
+        return text;
     }
-}
\ No newline at end of file
+}
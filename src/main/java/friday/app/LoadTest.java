@@ -0,0 +1,80 @@
+package friday.app;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load-test client for {@link Server}: several clients send a mix of adds, pages, searches and marks
+ * as fast as they can, then throughput and latency percentiles are printed.
+ * <p>
+ * Usage: {@code LoadTest [url] [clients] [requests per client]}, by default
+ * {@code http://localhost:8765/command 8 1000}. The tasks it adds stay in the server's list.
+ */
+public class LoadTest {
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args.length > 0 ? args[0] : "http://localhost:" + Server.DEFAULT_PORT + "/command");
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        Metrics.Histogram latency = new Metrics.Histogram();
+        AtomicLong failures = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<?>> running = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            running.add(pool.submit(() -> {
+                for (int i = 0; i < requests; i++) {
+                    HttpRequest request = HttpRequest.newBuilder(uri)
+                            .POST(HttpRequest.BodyPublishers.ofString(command(client, i))).build();
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+                        if (response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                    long took = System.nanoTime() - sent;
+                    synchronized (latency) {
+                        latency.record(took);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : running) {
+            f.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        long total = (long) clients * requests;
+        System.out.printf("%d requests from %d clients in %.2fs: %.0f requests/s, %d failed%n",
+                total, clients, seconds, total / seconds, failures.get());
+        System.out.printf("latency mean %s, p50 %s, p99 %s, max %s%n", Metrics.millis(latency.mean()),
+                Metrics.millis(latency.percentile(0.5)), Metrics.millis(latency.percentile(0.99)),
+                Metrics.millis(latency.max()));
+    }
+
+    /** Returns the {@code i}-th command of a client: mostly reads, with an add and a mark every ten. */
+    private static String command(int client, int i) {
+        switch (i % 10) {
+        case 0: return "todo load test " + client + "-" + i;
+        case 1: return "mark 1";
+        case 2: case 3: case 4: return "list 1 20";
+        case 5: case 6: return "find load test " + client;
+        default: return "on today";
+        }
+    }
+}
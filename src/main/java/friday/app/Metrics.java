@@ -0,0 +1,183 @@
+package friday.app;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Latency histograms per command and {@link Phase}, shown by the {@code stats} command.
+ * <p>
+ * Each histogram has logarithmic buckets with eight linear steps per power of two, so a percentile is
+ * off by at most one eighth while a recording costs one array increment. Every recording is also emitted as
+ * a {@code friday.Command} or {@code friday.Render} Flight Recorder event, e.g. for
+ * {@code java -XX:StartFlightRecording=filename=friday.jfr ...}.
+ */
+public class Metrics {
+    /** Where a command spends its time. */
+    public enum Phase {
+        /** Parsing the command and changing or querying the list; these are interleaved in the parser. */
+        EXECUTE,
+        /** Encoding and queueing snapshot and journal writes; the disk write itself happens behind. */
+        PERSIST,
+        /** Drawing the reply on the console or in the GUI. */
+        RENDER
+    }
+
+    private static final Set<String> COMMANDS = Set.of("list", "todo", "deadline", "event", "mark", "unmark",
+            "delete", "find", "due", "on", "between", "run", "sort", "stats", "undo", "redo", "bye");
+
+    private final Map<String, Map<Phase, Histogram>> histograms = new TreeMap<>();
+
+    /** Returns the name {@code cmd} is counted under: its first word, or {@code other} for unknown commands. */
+    static String commandName(String cmd) {
+        int space = cmd.indexOf(' ');
+        String word = space < 0 ? cmd : cmd.substring(0, space);
+        return COMMANDS.contains(word) ? word : "other";
+    }
+
+    /** Records the execute and persist time of one command. */
+    void command(String name, long executeNanos, long persistNanos, boolean failed) {
+        CommandEvent event = new CommandEvent();
+        if (event.shouldCommit()) {
+            event.command = name;
+            event.execute = executeNanos;
+            event.persist = persistNanos;
+            event.failed = failed;
+            event.commit();
+        }
+        synchronized (this) {
+            histogram(name, Phase.EXECUTE).record(executeNanos);
+            histogram(name, Phase.PERSIST).record(persistNanos);
+        }
+    }
+
+    /** Records the time taken to draw the reply to one command. */
+    void render(String name, long nanos) {
+        RenderEvent event = new RenderEvent();
+        if (event.shouldCommit()) {
+            event.command = name;
+            event.render = nanos;
+            event.commit();
+        }
+        synchronized (this) {
+            histogram(name, Phase.RENDER).record(nanos);
+        }
+    }
+
+    /** Returns one line per command and phase: count, mean, median, 99th percentile and maximum. */
+    synchronized List<String> report() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(" %-9s %-8s %7s %9s %9s %9s %9s", "command", "phase", "count", "mean", "p50", "p99",
+                "max"));
+        histograms.forEach((name, phases) -> phases.forEach((phase, h) -> lines.add(String.format(
+                " %-9s %-8s %7d %9s %9s %9s %9s", name, phase.name().toLowerCase(), h.count, millis(h.mean()),
+                millis(h.percentile(0.5)), millis(h.percentile(0.99)), millis(h.max())))));
+        return lines;
+    }
+
+    private Histogram histogram(String name, Phase phase) {
+        return histograms.computeIfAbsent(name, k -> new EnumMap<>(Phase.class))
+                .computeIfAbsent(phase, k -> new Histogram());
+    }
+
+    static String millis(long nanos) {
+        return String.format("%.3fms", nanos / 1e6);
+    }
+
+    /** Log-linear histogram of non-negative values. */
+    static class Histogram {
+        private static final int SUB_BITS = 3;
+        private static final int SUB = 1 << SUB_BITS;
+
+        private final long[] buckets = new long[(64 - SUB_BITS) * SUB];
+        private long count;
+        private long sum;
+        private long max;
+
+        void record(long value) {
+            long v = Math.max(0, value);
+            buckets[bucket(v)]++;
+            count++;
+            sum += v;
+            max = Math.max(max, v);
+        }
+
+        long max() {
+            return max;
+        }
+
+        long mean() {
+            return count == 0 ? 0 : sum / count;
+        }
+
+        /** Returns the upper bound of the bucket holding the {@code q} quantile, capped at the maximum seen. */
+        long percentile(double q) {
+            long rank = (long) Math.ceil(q * count);
+            long seen = 0;
+            for (int b = 0; b < buckets.length; b++) {
+                seen += buckets[b];
+                if (seen >= rank && seen > 0) {
+                    return Math.min(upper(b), max);
+                }
+            }
+            return max;
+        }
+
+        static int bucket(long v) {
+            if (v < SUB) {
+                return (int) v;
+            }
+            int exp = 63 - Long.numberOfLeadingZeros(v);
+            int sub = (int) (v >>> (exp - SUB_BITS)) & (SUB - 1);
+            return (exp - SUB_BITS + 1) * SUB + sub;
+        }
+
+        static long upper(int b) {
+            if (b < SUB) {
+                return b;
+            }
+            int exp = b / SUB + SUB_BITS - 1;
+            long sub = b % SUB;
+            return ((SUB + sub + 1) << (exp - SUB_BITS)) - 1;
+        }
+    }
+
+    @Name("friday.Command")
+    @Label("Command")
+    @Category("Friday")
+    static class CommandEvent extends jdk.jfr.Event {
+        @Label("Command")
+        String command;
+
+        @Label("Execute")
+        @Timespan
+        long execute;
+
+        @Label("Persist")
+        @Timespan
+        long persist;
+
+        @Label("Failed")
+        boolean failed;
+    }
+
+    @Name("friday.Render")
+    @Label("Render")
+    @Category("Friday")
+    static class RenderEvent extends jdk.jfr.Event {
+        @Label("Command")
+        String command;
+
+        @Label("Render")
+        @Timespan
+        long render;
+    }
+}
@@ -0,0 +1,101 @@
+package friday.app;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import friday.model.Task;
+import friday.model.TaskStore;
+import friday.ui.Response;
+import friday.ui.Ui;
+
+/**
+ * Tells the user when a deadline or event is coming up.
+ * <p>
+ * Every {@link #TICK} a daemon thread takes the reminders that have fallen due from the {@link TaskStore}'s
+ * reminder queue, which is kept up to date as tasks are added, removed and marked, so a tick when nothing
+ * is due only looks at the head of the queue instead of scanning the list. Due reminders are handed to a
+ * sink as one reply: the console in the CLI, a dialog bubble in the GUI. The time comes from a {@link Clock},
+ * so tests can drive {@link #check()} by hand.
+ */
+public class ReminderScheduler {
+    /** How often the queue is checked. */
+    public static final Duration TICK = Duration.ofSeconds(1);
+
+    private final TaskStore tasks;
+    private final Ui ui;
+    private final Clock clock;
+    private ScheduledExecutorService timer;
+
+    public ReminderScheduler(TaskStore tasks, Ui ui, Clock clock) {
+        this.tasks = tasks;
+        this.ui = ui;
+        this.clock = clock;
+    }
+
+    /**
+     * Parses lead times such as {@code 1d,1h,10m}; {@code off} means none.
+     * @throws IllegalArgumentException if a lead time is not a number followed by d, h or m
+     */
+    public static List<Duration> parseLeads(String spec) {
+        List<Duration> leads = new ArrayList<>();
+        if (spec.trim().equalsIgnoreCase("off")) {
+            return leads;
+        }
+        for (String part : spec.split(",")) {
+            String p = part.trim().toLowerCase();
+            if (p.length() < 2) {
+                throw new IllegalArgumentException("Bad reminder lead time: " + part);
+            }
+            long n = Long.parseLong(p.substring(0, p.length() - 1));
+            switch (p.charAt(p.length() - 1)) {
+            case 'd': leads.add(Duration.ofDays(n)); break;
+            case 'h': leads.add(Duration.ofHours(n)); break;
+            case 'm': leads.add(Duration.ofMinutes(n)); break;
+            default: throw new IllegalArgumentException("Bad reminder lead time: " + part);
+            }
+        }
+        return leads;
+    }
+
+    /** Returns a reply listing the reminders due now, or null if there are none. */
+    public Response check() {
+        List<Task> due = tasks.takeReminders(LocalDateTime.now(clock));
+        return due.isEmpty() ? null : ui.remind(due, tasks.numbersOf(due));
+    }
+
+    /** Starts checking every {@link #TICK}, passing each reply to {@code sink} on the timer thread. */
+    public synchronized void start(Consumer<Response> sink) {
+        if (timer != null) {
+            return;
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "friday-reminders");
+            t.setDaemon(true);
+            return t;
+        });
+        timer.scheduleWithFixedDelay(() -> {
+            try {
+                Response r = check();
+                if (r != null) {
+                    sink.accept(r);
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Reminder failed: " + e.getMessage());   // keep the timer running
+            }
+        }, 0, TICK.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (timer != null) {
+            timer.shutdownNow();
+            timer = null;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package friday.app;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import friday.ui.GuiRenderer;
+import friday.ui.Response;
+import friday.ui.Ui;
+
+/**
+ * Serves one shared {@link Session} to several clients over HTTP on the loopback interface.
+ * <p>
+ * {@code POST /command} takes a command of the usual grammar as its UTF-8 body and answers with the reply
+ * text, e.g. {@code curl -d 'todo read book' localhost:8765/command}. Each request runs on its own pooled
+ * thread; commands are applied to the single in-memory list one at a time and persisted through its storage
+ * as usual. {@code bye} only ends the client's conversation, not the server.
+ */
+public class Server {
+    public static final int DEFAULT_PORT = 8765;
+    private static final int BACKLOG = 256;
+
+    static {
+        // replies are written as headers then body; without TCP_NODELAY the body waits ~40ms for a delayed ACK
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final Session session;
+    private final Ui ui = new Ui();
+    private HttpServer http;
+    private ExecutorService workers;
+
+    public Server(Session session) {
+        this.session = session;
+    }
+
+    /**
+     * Starts listening on {@code port} of the loopback address; 0 picks a free port.
+     * @return the address actually bound
+     */
+    public InetSocketAddress start(int port) throws IOException {
+        http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        workers = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "friday-server");
+            t.setDaemon(true);
+            return t;
+        });
+        http.setExecutor(workers);
+        http.createContext("/command", this::command);
+        http.start();
+        return http.getAddress();
+    }
+
+    /** Stops accepting requests, waiting up to a second for those in flight. */
+    public void stop() {
+        http.stop(1);
+        workers.shutdown();
+    }
+
+    private void command(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                send(exchange, 405, "Send the command as the body of a POST request.");
+                return;
+            }
+            String cmd = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8).trim();
+            Response r = Friday.respond(session, ui, cmd);
+            long start = System.nanoTime();
+            String text = GuiRenderer.render(r);
+            session.rendered(cmd, System.nanoTime() - start);
+            send(exchange, 200, text);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] body = (text + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
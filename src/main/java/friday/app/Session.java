@@ -0,0 +1,237 @@
+package friday.app;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import friday.exception.FridayException;
+import friday.logic.BatchRunner;
+import friday.logic.Parser;
+import friday.model.CompactTaskList;
+import friday.model.Task;
+import friday.model.TaskList;
+import friday.model.TaskStore;
+import friday.storage.Durability;
+import friday.storage.Storage;
+import friday.ui.Response;
+import friday.ui.Ui;
+
+/**
+ * Long-lived engine behind {@link Friday}: loads the task list once and keeps it in memory,
+ * so each command only pays for its own work and for persisting its own mutation.
+ * <p>
+ * The file can be read in the background with {@link #loadInBackground()}. Until it is, new tasks are held
+ * back and added after the loaded ones, so adding does not wait; every other command waits for the load.
+ */
+public class Session {
+    /** Location of the task file used by the CLI and the GUI. */
+    public static final Path DEFAULT_FILE = Paths.get("data", "tasks.txt");
+
+    /** Commands that only read the task list, by {@link Metrics#commandName(String)}. */
+    private static final Set<String> QUERIES = Set.of("list", "find", "due", "on", "between", "stats");
+    /** Commands that only add a task, and so need not wait for the list to load. */
+    private static final Set<String> ADDS = Set.of("todo", "deadline", "event");
+    /** Task files smaller than this are read before {@link #loadInBackground()} returns. */
+    private static final long BACKGROUND_LOAD_BYTES = 256 * 1024;
+
+    private final Storage storage;
+    private final TaskStore tasks;
+    private final Parser parser = new Parser();
+    private final Metrics metrics = new Metrics();
+    private final List<Task> held = new ArrayList<>();     // added while loading; guarded by this
+    private final long created = System.nanoTime();
+    private volatile CompletableFuture<Integer> loading = CompletableFuture.completedFuture(0);
+    private volatile long promptNanos = -1;
+    private volatile long readyNanos = -1;
+
+    /**
+     * Creates a session over {@code file}. The {@code friday.durability} system property picks when
+     * mutations reach the disk: {@code every} (default), {@code exit}, or an interval in milliseconds; any
+     * other value is reported and replaced by {@code every}.
+     * Setting {@code friday.store} to {@code columnar} keeps the tasks in a {@link CompactTaskList}, which
+     * needs far less memory for very large lists but answers queries by scanning.
+     * {@code friday.remind} gives the reminder lead times, e.g. {@code 1d,1h} (default {@code 1h}) or {@code off};
+     * see {@link ReminderScheduler}.
+     */
+    public Session(Path file) {
+        this.tasks = System.getProperty("friday.store", "objects").equals("columnar")
+                ? new CompactTaskList() : new TaskList();
+        tasks.remindBefore(ReminderScheduler.parseLeads(System.getProperty("friday.remind", "1h")));
+        String setting = System.getProperty("friday.durability", "every");
+        Durability durability;
+        try {
+            durability = Durability.parse(setting);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage() + "; using every");
+            durability = Durability.EVERY_COMMAND;
+        }
+        long intervalMs = durability == Durability.INTERVAL ? Durability.intervalMs(setting) : 0;
+        this.storage = new Storage(file, Storage.DEFAULT_COMPACT_EVERY, durability, intervalMs);
+    }
+
+    /**
+     * Reads the task file into memory. Called once, before the first command.
+     * @return number of malformed lines that were skipped
+     */
+    public int load() throws IOException {
+        tasks.setAll(storage.load());
+        readyNanos = System.nanoTime() - created;
+        return storage.skippedLines();
+    }
+
+    /**
+     * Starts reading the task file on a background thread and returns at once. A file under 256 KiB is read
+     * before returning instead: that takes milliseconds, and the first commands then always see the loaded
+     * list, so a session's replies do not depend on how fast the disk was.
+     * @return completes with the number of malformed lines skipped, or with the error that stopped the load,
+     *     once the list and the tasks added meanwhile are in place
+     */
+    public CompletableFuture<Integer> loadInBackground() {
+        CompletableFuture<Integer> done = new CompletableFuture<>();
+        loading = done;
+        try {
+            if (storage.sizeOnDisk() < BACKGROUND_LOAD_BYTES) {
+                done.complete(load());
+                return done;
+            }
+        } catch (IOException e) {
+            done.completeExceptionally(e);
+            return done;
+        }
+        Thread loader = new Thread(() -> {
+            int skipped = 0;
+            Exception failure = null;
+            try {
+                skipped = load();
+            } catch (Exception e) {
+                failure = e;
+            }
+            synchronized (this) {
+                try {
+                    Ui ui = new Ui();
+                    for (Task t : held) {
+                        tasks.add(t, ui, storage);
+                    }
+                } catch (IOException e) {
+                    failure = failure != null ? failure : e;
+                }
+                held.clear();
+                readyNanos = System.nanoTime() - created;
+                if (failure == null) {
+                    done.complete(skipped);
+                } else {
+                    done.completeExceptionally(failure);
+                }
+            }
+        }, "friday-load");
+        loader.setDaemon(true);
+        loader.start();
+        return done;
+    }
+
+    /** Notes that the first prompt was shown, for {@code stats}. */
+    public void prompted() {
+        if (promptNanos < 0) {
+            promptNanos = System.nanoTime() - created;
+        }
+    }
+
+    /** Blocks until the task file has been read; a failed load was already reported to whoever started it. */
+    private void awaitLoad() {
+        loading.handle((skipped, e) -> skipped).join();
+    }
+
+    /**
+     * Parses and executes a single command against the resident task list, timing it for {@code stats}.
+     * Queries run concurrently with each other and with changes; changes run one at a time.
+     * @return Friday's reply, which the caller renders
+     */
+    public Response handle(String cmd, Ui ui) throws Exception {
+        String name = Metrics.commandName(cmd);
+        if (!ADDS.contains(name)) {
+            awaitLoad();
+        }
+        if (QUERIES.contains(name) || cmd.startsWith("sort by ")) {
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Response r = name.equals("stats") ? stats(ui) : parser.handle(cmd, tasks, ui, storage);
+                failed = false;
+                return r;
+            } finally {
+                metrics.command(name, System.nanoTime() - start, 0, failed);
+            }
+        }
+        synchronized (this) {
+            long persistBefore = storage.persistNanos();
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Response r = loading.isDone() ? parser.handle(cmd, tasks, ui, storage) : hold(cmd, ui);
+                failed = false;
+                return r;
+            } finally {
+                long persist = storage.persistNanos() - persistBefore;
+                metrics.command(name, System.nanoTime() - start - persist, persist, failed);
+            }
+        }
+    }
+
+    /** Keeps the task added by {@code cmd} until the list has loaded; the caller holds this session's lock. */
+    private Response hold(String cmd, Ui ui) throws FridayException {
+        Task t = parser.newTask(cmd);
+        held.add(t);
+        return ui.held(t);
+    }
+
+    /** Records how long the reply to {@code cmd} took to draw. */
+    public void rendered(String cmd, long nanos) {
+        metrics.render(Metrics.commandName(cmd), nanos);
+    }
+
+    private Response stats(Ui ui) {
+        int[] byType = new int[3];
+        int done = 0;
+        List<Task> all = tasks.all();
+        for (Task t : all) {
+            byType[t.typeCode() == 'T' ? 0 : t.typeCode() == 'D' ? 1 : 2]++;
+            done += t.isDone() ? 1 : 0;
+        }
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(" Tasks: %d (%d todos, %d deadlines, %d events), %d done",
+                all.size(), byType[0], byType[1], byType[2], done));
+        lines.add(String.format(" Storage: loaded in %s, %d bytes written in %d disk writes",
+                Metrics.millis(storage.loadNanos()), storage.bytesWritten(), storage.diskWrites()));
+        if (promptNanos >= 0) {
+            lines.add(String.format(" Startup: first prompt after %s, list ready after %s",
+                    Metrics.millis(promptNanos), Metrics.millis(readyNanos)));
+        }
+        lines.addAll(metrics.report());
+        return ui.showStats(lines);
+    }
+
+    /**
+     * Runs {@code script} as a single batch: one write at the end (or every {@code every} commands)
+     * and all-or-nothing rollback on failure.
+     */
+    public Response runBatch(List<String> script, Ui ui, int every) throws FridayException, IOException {
+        awaitLoad();
+        synchronized (this) {
+            return new BatchRunner(parser).run(script, tasks, ui, storage, every);
+        }
+    }
+
+    /** Writes out anything still pending, after the load if one is running; called when the app exits. */
+    public void close() throws IOException {
+        awaitLoad();
+        storage.close();
+    }
+
+    public TaskStore tasks() {
+        return tasks;
+    }
+}
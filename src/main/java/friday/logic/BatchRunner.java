@@ -0,0 +1,74 @@
+package friday.logic;
+
+import friday.exception.FridayException;
+import friday.model.TaskStore;
+import friday.storage.Storage;
+import friday.ui.Response;
+import friday.ui.Ui;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a script of commands against the in-memory task list as one unit.
+ * Replies are collected and returned once the script finishes, the list is persisted with a single write
+ * at the end (or every {@code every} commands), and a failing command rolls the whole script back.
+ * Blank lines and lines starting with {@code #} are ignored; {@code bye} ends the script early.
+ */
+public class BatchRunner {
+    /** Checkpoint interval meaning "persist only once the script has finished". */
+    public static final int AT_END = 0;
+
+    private final Parser parser;
+
+    public BatchRunner(Parser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Runs {@code commands} and returns their replies followed by a summary.
+     * @param every number of commands between checkpoints, or {@link #AT_END}
+     * @throws FridayException naming the failing line, after the list has been restored
+     */
+    public Response run(List<String> commands, TaskStore tasks, Ui ui, Storage storage, int every)
+            throws FridayException, IOException {
+        List<Response> replies = new ArrayList<>();
+
+        boolean checkpointed = false;
+        int ran = 0;
+        storage.beginBatch();
+        tasks.beginBatch();
+        for (int i = 0; i < commands.size(); i++) {
+            String cmd = commands.get(i).trim();
+            if (cmd.isEmpty() || cmd.startsWith("#")) {
+                continue;
+            }
+            if (cmd.equals("bye")) {
+                break;
+            }
+            try {
+                if (cmd.startsWith("run ")) {
+                    throw new FridayException("A script cannot run another script.");
+                }
+                replies.add(parser.handle(cmd, tasks, ui, storage));
+            } catch (Exception e) {
+                tasks.abortBatch(storage);           // while storage still defers, so nothing reaches the journal
+                storage.abortBatch();
+                if (checkpointed) {
+                    storage.save(tasks.all());              // disk already holds part of the script
+                }
+                throw new FridayException("Line " + (i + 1) + " (" + cmd + "): " + e.getMessage()
+                        + " Nothing from the script was kept.");
+            }
+            ran++;
+            if (every > 0 && ran % every == 0) {
+                storage.checkpoint(tasks.all());
+                checkpointed = true;
+            }
+        }
+        tasks.endBatch();
+        storage.endBatch(tasks.all());
+        return ui.batchDone(replies, ran);
+    }
+}
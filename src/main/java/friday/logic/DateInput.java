@@ -0,0 +1,159 @@
+package friday.logic;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads user-typed and stored date/time text without using exceptions for control flow.
+ * <p>
+ * The input is split into a date part and an optional time part, the shape of each is recognised
+ * from its separators, and the digits are read directly. Supported shapes:
+ * <ul>
+ *   <li>dates: {@code yyyy-MM-dd}, {@code d/M/yyyy}, {@code today}, {@code tomorrow}, {@code yesterday}
+ *       and weekday names such as {@code mon} or {@code friday} (the next such day, today included)</li>
+ *   <li>times, after a space: {@code HHmm} or {@code H:mm}; after {@code T} (ISO): {@code HH:mm[:ss]}</li>
+ * </ul>
+ * A date without a time means the start of that day; {@link #hasTime(String)} tells it apart from an explicit
+ * midnight.
+ */
+public class DateInput {
+    private static final Map<String, DayOfWeek> WEEKDAYS = new HashMap<>();
+
+    static {
+        for (DayOfWeek d : DayOfWeek.values()) {
+            String name = d.name().toLowerCase(Locale.ROOT);
+            WEEKDAYS.put(name, d);
+            WEEKDAYS.put(name.substring(0, 3), d);
+        }
+    }
+
+    private final Clock clock;
+
+    public DateInput() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /** @param clock source of "today" for relative inputs */
+    public DateInput(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the date/time described by {@code input}, or null if it has no supported shape
+     * or names an impossible date or time.
+     */
+    public LocalDateTime parse(String input) {
+        String s = input.trim();
+        String datePart = s;
+        String timePart = null;
+        int split = timeSeparator(s);
+        if (split >= 0) {
+            datePart = s.substring(0, split);
+            timePart = s.substring(split + 1).trim();
+        }
+        LocalDate date = date(datePart);
+        if (date == null) {
+            return null;
+        }
+        if (timePart == null) {
+            return date.atStartOfDay();
+        }
+        LocalTime time = time(timePart);
+        return time == null ? null : date.atTime(time);
+    }
+
+    /** Returns whether {@code input} gives a time of day after its date; neither is checked for validity. */
+    public boolean hasTime(String input) {
+        return timeSeparator(input.trim()) >= 0;
+    }
+
+    /** Returns the index of the space or ISO {@code T} between the date and time parts, or -1 if there is none. */
+    private static int timeSeparator(String s) {
+        int space = s.indexOf(' ');
+        if (space >= 0) {
+            return space;
+        }
+        return s.length() > 10 && s.charAt(10) == 'T' ? 10 : -1;
+    }
+
+    private LocalDate date(String s) {
+        if (s.length() == 10 && s.charAt(4) == '-' && s.charAt(7) == '-') {
+            return date(digits(s, 0, 4), digits(s, 5, 2), digits(s, 8, 2));
+        }
+        int slash = s.indexOf('/');
+        if (slash > 0) {
+            int second = s.indexOf('/', slash + 1);
+            if (second < 0 || s.length() - second - 1 != 4 || slash > 2 || second - slash - 1 > 2) {
+                return null;
+            }
+            return date(digits(s, second + 1, 4), digits(s, slash + 1, second - slash - 1), digits(s, 0, slash));
+        }
+        String word = s.toLowerCase(Locale.ROOT);
+        LocalDate today = LocalDate.now(clock);
+        switch (word) {
+        case "today": return today;
+        case "tomorrow": return today.plusDays(1);
+        case "yesterday": return today.minusDays(1);
+        default:
+            DayOfWeek dow = WEEKDAYS.get(word);
+            return dow == null ? null : today.with(TemporalAdjusters.nextOrSame(dow));
+        }
+    }
+
+    private static LocalTime time(String s) {
+        int len = s.length();
+        int colon = s.indexOf(':');
+        if (colon < 0 && len == 4) {
+            return time(digits(s, 0, 2), digits(s, 2, 2), 0);
+        }
+        if (colon < 1 || colon > 2) {
+            return null;
+        }
+        int hour = digits(s, 0, colon);
+        if (len == colon + 3) {
+            return time(hour, digits(s, colon + 1, 2), 0);
+        }
+        if (len == colon + 6 && s.charAt(colon + 3) == ':') {
+            return time(hour, digits(s, colon + 1, 2), digits(s, colon + 4, 2));
+        }
+        return null;
+    }
+
+    private static LocalDate date(int year, int month, int day) {
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31
+                || (day > 28 && day > LocalDate.of(year, month, 1).lengthOfMonth())) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    private static LocalTime time(int hour, int minute, int second) {
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+        return LocalTime.of(hour, minute, second);
+    }
+
+    /** Returns the decimal value of {@code count} digits at {@code from}, or -1 if any is not a digit. */
+    private static int digits(String s, int from, int count) {
+        if (count < 1 || from + count > s.length()) {
+            return -1;
+        }
+        int v = 0;
+        for (int i = from; i < from + count; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            v = v * 10 + (c - '0');
+        }
+        return v;
+    }
+}
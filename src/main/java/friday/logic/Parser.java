@@ -3,15 +3,23 @@ package friday.logic;
 import friday.model.Deadline;
 import friday.model.ToDo;
 import friday.model.Event;
+import friday.model.SortKey;
+import friday.model.Selection;
+import friday.model.Task;
+import friday.ui.Response;
 import friday.ui.Ui;
 import friday.storage.Storage;
 import friday.exception.FridayException;
-import friday.model.TaskList;
+import friday.model.TaskStore;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.util.List;
 
 /**
  * Contains the logic of {@link friday.app.Friday}
@@ -25,64 +33,93 @@ public class Parser {
     private static final DateTimeFormatter OUT_DATE = DateTimeFormatter.ofPattern("MMM d yyyy");
     private static final DateTimeFormatter OUT_DT   = DateTimeFormatter.ofPattern("MMM d yyyy, h:mma");
 
+    private static final DateInput DATES = new DateInput();
+
     /**
-     * Converts 4 possible time inputs into a singular date-time format
-     * yyyy-MM-dd[ HHmm] or d/M/yyyy[ HHmm]; date-only -> 00:00
+     * Converts a date/time input into a single date-time value; see {@link DateInput} for the accepted shapes
+     * (e.g. yyyy-MM-dd[ HHmm], d/M/yyyy[ HHmm], today, friday). Date-only -> 00:00
      */
     public static LocalDateTime parseDT(String s) throws FridayException {
-        s = s.trim();
-        for (String p : new String[]{"yyyy-MM-dd HHmm","yyyy-MM-dd","d/M/yyyy HHmm","d/M/yyyy"}) {
-            DateTimeFormatter f = DateTimeFormatter.ofPattern(p);
-            try {
-                return p.contains("HHmm") ? LocalDateTime.parse(s, f) : LocalDate.parse(s, f).atStartOfDay();
-            } catch (DateTimeParseException ignored) {}
+        LocalDateTime dt = DATES.parse(s);
+        if (dt == null) {
+            throw new FridayException("Cannot parse date/time. Use yyyy-MM-dd[ HHmm] or d/M/yyyy[ HHmm].");
         }
-        throw new FridayException("Cannot parse date/time. Use yyyy-MM-dd[ HHmm] or d/M/yyyy[ HHmm].");
+        return dt;
     }
-    public static String formatForDisplay(LocalDateTime dt) {
-        return (dt.getHour()==0 && dt.getMinute()==0) ? dt.toLocalDate().format(OUT_DATE) : dt.format(OUT_DT);
+
+    /**
+     * Reads an inclusive range end. A date without a time stands for the whole day, so it is widened to the
+     * last instant of that day; an explicit time, midnight included, is kept as given.
+     */
+    private static LocalDateTime endOf(String s) throws FridayException {
+        LocalDateTime dt = parseDT(s);
+        return DATES.hasTime(s) ? dt : endOfDay(dt.toLocalDate());
+    }
+
+    private static LocalDateTime endOfDay(LocalDate day) {
+        return day.plusDays(1).atStartOfDay().minusNanos(1);
     }
 
     /**
-     * Returns true if user asked to exit.
-     * @param cmd Input given by user
-     * @param tasks Most updated tasklist prior to processing user command
-     * @param ui User interface that user interacts with. Input and output through this interface
-     * @param storage txt file that stores tasklist outside of program. This ensures tasklist information
-     *                is not lost even after termination of program
+     * Reads the paging arguments of a listing: nothing (the first page), {@code <page> [size]},
+     * or {@code --from <n> --to <m>} with one-based inclusive positions.
+     * @return zero-based {@code [from, to)} within {@code total} items
      */
-    public boolean handle(String cmd, TaskList tasks, Ui ui, Storage storage) throws Exception {
-        if (cmd.equals("bye")) {
-            ui.bye();
-            return true;
+    private static int[] range(String args, int total, String usage) throws FridayException {
+        int from;
+        int to;
+        try {
+            if (args.isEmpty()) {
+                from = 0;
+                to = Ui.PAGE_SIZE;
+            } else if (args.startsWith("--from")) {
+                int iTo = args.indexOf("--to");
+                if (iTo < 0) {
+                    throw new FridayException("Use: " + usage);
+                }
+                from = Integer.parseInt(args.substring(6, iTo).trim()) - 1;
+                to = Integer.parseInt(args.substring(iTo + 4).trim());
+            } else {
+                String[] p = args.split("\\s+");
+                int size = p.length > 1 ? Integer.parseInt(p[1]) : Ui.PAGE_SIZE;
+                int page = Integer.parseInt(p[0]);
+                if (p.length > 2 || page < 1 || size < 1) {
+                    throw new FridayException("Use: " + usage);
+                }
+                from = (int) Math.min((long) (page - 1) * size, Integer.MAX_VALUE);
+                to = (int) Math.min((long) from + size, Integer.MAX_VALUE);
+            }
+        } catch (NumberFormatException e) {
+            throw new FridayException("Use: " + usage);
         }
-
-        if (cmd.equals("list")) {
-            ui.showList(tasks.all());
-            return false;
+        if (from < 0 || to <= from) {
+            throw new FridayException("Use: " + usage);
         }
-
-        if (cmd.startsWith("mark ") || cmd.startsWith("unmark ")) {
-            boolean mark = cmd.startsWith("mark ");
-            String nStr = cmd.substring(mark ? 5 : 7).trim();
-            int n = Integer.parseInt(nStr);
-            tasks.toggle(n, mark, ui, storage);
-            return false;
+        if (total == 0) {
+            return new int[] {0, 0};
         }
-
-        if (cmd.startsWith("delete ")) {
-            int n = Integer.parseInt(cmd.substring(6).trim());
-            tasks.remove(n, ui, storage);
-            return false;
+        if (from >= total) {
+            throw new FridayException("There are only " + total + " items to show.");
         }
+        return new int[] {from, Math.min(to, total)};
+    }
+
+    public static String formatForDisplay(LocalDateTime dt) {
+        return (dt.getHour()==0 && dt.getMinute()==0) ? dt.toLocalDate().format(OUT_DATE) : dt.format(OUT_DT);
+    }
 
+    /**
+     * Builds the task that {@code cmd} adds, without adding it.
+     * @return the new task, or null if {@code cmd} is not {@code todo}, {@code deadline} or {@code event}
+     * @throws FridayException if it is one of those but malformed
+     */
+    public Task newTask(String cmd) throws FridayException {
         if (cmd.startsWith("todo")) {
             String desc = cmd.substring(4).trim();
             if (desc.isEmpty()) {
                 throw new FridayException("friday.model.Task description cannot be empty.");
             }
-            tasks.add(new ToDo(desc), ui, storage);
-            return false;
+            return new ToDo(desc);
         }
 
         if (cmd.startsWith("deadline")) {
@@ -96,8 +133,7 @@ public class Parser {
             if (desc.isEmpty() || when.isEmpty()) {
                 throw new FridayException("Description and time required.");
             }
-            tasks.add(new Deadline(desc, parseDT(when)), ui, storage);
-            return false;
+            return new Deadline(desc, parseDT(when));
         }
 
         if (cmd.startsWith("event")) {
@@ -112,21 +148,133 @@ public class Parser {
             if (desc.isEmpty() || from.isEmpty() || to.isEmpty()) {
                 throw new FridayException("Provide desc, from, and to.");
             }
-            tasks.add(new Event(desc, parseDT(from), parseDT(to)), ui, storage);
-            return false;
+            return new Event(desc, parseDT(from), parseDT(to));
+        }
+        return null;
+    }
+
+    /**
+     * Executes {@code cmd} and returns Friday's reply; {@link Response#isExit()} is true if the user asked to exit.
+     * @param cmd Input given by user
+     * @param tasks Most updated tasklist prior to processing user command
+     * @param ui User interface that user interacts with. Input and output through this interface
+     * @param storage txt file that stores tasklist outside of program. This ensures tasklist information
+     *                is not lost even after termination of program
+     */
+    public Response handle(String cmd, TaskStore tasks, Ui ui, Storage storage) throws Exception {
+        if (cmd.equals("bye")) {
+            storage.flush();
+            return ui.bye();
+        }
+
+        if (cmd.equals("list") || cmd.startsWith("list ")) {
+            int total = tasks.size();
+            int[] range = range(cmd.substring(4).trim(), total, "list [page] [size] or list --from <n> --to <m>");
+            return ui.showPage(tasks.page(range[0], range[1]), range[0], total);
+        }
+
+        if (cmd.startsWith("mark ") || cmd.startsWith("unmark ")) {
+            boolean mark = cmd.startsWith("mark ");
+            String spec = cmd.substring(mark ? 5 : 7).trim();
+            Selection selection = Selection.parse(spec);
+            return selection.isSingle() ? tasks.toggle(spec, mark, ui, storage)
+                    : tasks.toggleAll(selection, mark, ui, storage);
+        }
+
+        if (cmd.startsWith("delete ")) {
+            String spec = cmd.substring(6).trim();
+            Selection selection = Selection.parse(spec);
+            return selection.isSingle() ? tasks.remove(spec, ui, storage) : tasks.removeAll(selection, ui, storage);
+        }
+
+        Task added = newTask(cmd);
+        if (added != null) {
+            return tasks.add(added, ui, storage);
+        }
+
+        if (cmd.equals("undo")) {
+            return tasks.undo(ui, storage);
+        }
+
+        if (cmd.equals("redo")) {
+            return tasks.redo(ui, storage);
         }
 
         if (cmd.startsWith("find")) {
-            String keyword = cmd.substring(4).trim();
+            String keyword = cmd.substring(4).trim();       // "<keyword> [--from <n> --to <m>]"
+            String paging = "";
+            int iFrom = keyword.indexOf("--from");
+            if (iFrom >= 0) {
+                paging = keyword.substring(iFrom);
+                keyword = keyword.substring(0, iFrom).trim();
+            }
             if (keyword.isEmpty()) throw new FridayException("Provide a keyword to find.");
-            ui.showMatches(tasks.find(keyword));
-            return false;
+            List<Task> matches = tasks.find(keyword);
+            int[] range = range(paging, matches.size(), "find <keyword> [--from <n> --to <m>]");
+            return ui.showMatches(matches, range[0], range[1]);
+        }
+
+        if (cmd.startsWith("due ")) {
+            return ui.showSchedule(tasks.dueBy(endOf(cmd.substring(4))));
+        }
+
+        if (cmd.startsWith("on ")) {
+            LocalDate day = parseDT(cmd.substring(3)).toLocalDate();
+            return ui.showSchedule(tasks.between(day.atStartOfDay(), endOfDay(day)));
+        }
+
+        if (cmd.startsWith("between ")) {
+            String rest = cmd.substring(8).trim();              // "<start> /to <end>"
+            int iTo = rest.indexOf("/to");
+            if (iTo < 0) {
+                throw new FridayException("Use: between <start> /to <end>");
+            }
+            LocalDateTime start = parseDT(rest.substring(0, iTo));
+            LocalDateTime end = endOf(rest.substring(iTo + 3));
+            if (end.isBefore(start)) {
+                throw new FridayException("The end of the range must not be before its start.");
+            }
+            return ui.showSchedule(tasks.between(start, end));
+        }
+
+        if (cmd.startsWith("run ")) {
+            String rest = cmd.substring(4).trim();              // "<file> [/every <n>]"
+            int every = BatchRunner.AT_END;
+            int iEvery = rest.indexOf("/every");
+            if (iEvery >= 0) {
+                try {
+                    every = Integer.parseInt(rest.substring(iEvery + 6).trim());
+                } catch (NumberFormatException e) {
+                    throw new FridayException("Use: run <file> [/every <n>]");
+                }
+                rest = rest.substring(0, iEvery).trim();
+            }
+            List<String> script;
+            try {
+                script = Files.readAllLines(Paths.get(rest), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new FridayException("Cannot read script " + rest + ": " + e.getMessage());
+            }
+            return new BatchRunner(this).run(script, tasks, ui, storage, every);
+        }
+
+        if (cmd.startsWith("sort by ")) {
+            String usage = "sort by type|time|done|desc [page] [size]";
+            String[] p = cmd.substring(8).trim().split("\\s+", 2);     // "<key> [page] [size]"
+            SortKey key = SortKey.parse(p[0]);
+            if (key == null) {
+                throw new FridayException("Use: " + usage);
+            }
+            int total = tasks.size();
+            int[] range = range(p.length > 1 ? p[1] : "", total, usage);
+            List<Task> page = tasks.sorted(key, range[0], range[1]);
+            return ui.showSorted(key.toString(), page, tasks.numbersOf(page), range[0], total);
         }
 
         if (cmd.startsWith("sort")) {
             tasks.sortByType();
-            ui.showList(tasks.all());  // re-display sorted list
-            return false;
+            storage.save(tasks.all());  // the journal only records changes, so the new order needs a snapshot
+            return ui.showList(tasks.all());  // re-display sorted list
         }
         throw new FridayException("What talk you bro");
     }
@@ -0,0 +1,173 @@
+package friday.model;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Pending reminders for the deadlines and events of a {@link CompactTaskList}, the columnar counterpart of
+ * {@link ReminderQueue}.
+ * <p>
+ * Entries are (epoch second, id, lead) triples in a binary min-heap of primitive arrays, so a tick when
+ * nothing is due only looks at the head. Removing or marking a task does not touch the heap: each entry is
+ * checked against the columns when it comes up and dropped if its task is gone, done or moved. Such stale
+ * entries are swept out once the heap holds twice as many entries as there could be live ones.
+ */
+class ColumnReminderQueue {
+    private long[] ats = new long[16];
+    private long[] ids = new long[16];
+    private int[] leadOf = new int[16];
+    private int size;
+    private long[] leads = new long[0];         // in seconds
+    private long takenUpTo = Long.MIN_VALUE;    // the latest take, in epoch seconds
+
+    /** Replaces the lead times and re-queues every pending task in {@code columns} with them. */
+    void setLeads(List<Duration> leads, TaskColumns columns) {
+        this.leads = new long[leads.size()];
+        for (int i = 0; i < this.leads.length; i++) {
+            this.leads[i] = leads.get(i).getSeconds();
+        }
+        takenUpTo = Long.MIN_VALUE;
+        rebuild(columns);
+    }
+
+    /** Queues the reminders of the task in {@code row}, if it is a pending deadline or event. */
+    void add(int row, TaskColumns columns) {
+        if (!isTimed(row, columns) || columns.isDone(row)) {
+            return;
+        }
+        if (size + leads.length > 2 * columns.size() * leads.length + 1024) {
+            sweep(columns);
+        }
+        for (int i = 0; i < leads.length; i++) {
+            push(columns.first(row) - leads[i], columns.id(row), i);
+        }
+    }
+
+    /** Re-queues every pending task in {@code columns}, leaving out the reminders already taken. */
+    void rebuild(TaskColumns columns) {
+        size = 0;
+        for (int row = 0; row < columns.rows(); row++) {
+            if (isTimed(row, columns) && !columns.isDone(row)) {
+                for (int i = 0; i < leads.length; i++) {
+                    long at = columns.first(row) - leads[i];
+                    if (at > takenUpTo) {
+                        push(at, columns.id(row), i);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes every entry due at or before {@code now} and returns the rows of their tasks, each once, in the
+     * order their reminders fell due. Tasks whose time has already come are dropped without a reminder.
+     */
+    List<Integer> take(long now, TaskColumns columns) {
+        takenUpTo = Math.max(takenUpTo, now);
+        Set<Integer> due = new LinkedHashSet<>();
+        while (size > 0 && ats[0] <= now) {
+            int row = current(0, columns);
+            pop();
+            if (row >= 0 && columns.first(row) >= now) {
+                due.add(row);
+            }
+        }
+        return new ArrayList<>(due);
+    }
+
+    /** Returns the row of the task of entry {@code e} if the entry is still pending, or -1 if it is stale. */
+    private int current(int e, TaskColumns columns) {
+        int row = columns.rowOfId(ids[e]);
+        if (row < 0 || !isTimed(row, columns) || columns.isDone(row)
+                || columns.first(row) - leads[leadOf[e]] != ats[e]) {
+            return -1;
+        }
+        return row;
+    }
+
+    private static boolean isTimed(int row, TaskColumns columns) {
+        char type = columns.type(row);
+        return type == 'D' || type == 'E';
+    }
+
+    /** Drops the stale entries and the copies left by marking and unmarking a task again, then re-heaps. */
+    private void sweep(TaskColumns columns) {
+        Set<Long> seen = new HashSet<>();
+        int kept = 0;
+        for (int e = 0; e < size; e++) {
+            if (current(e, columns) >= 0 && seen.add(ids[e] * leads.length + leadOf[e])) {
+                ats[kept] = ats[e];
+                ids[kept] = ids[e];
+                leadOf[kept] = leadOf[e];
+                kept++;
+            }
+        }
+        size = kept;
+        for (int e = size / 2 - 1; e >= 0; e--) {
+            down(e);
+        }
+    }
+
+    private void push(long at, long id, int lead) {
+        if (size == ats.length) {
+            ats = Arrays.copyOf(ats, size * 2);
+            ids = Arrays.copyOf(ids, size * 2);
+            leadOf = Arrays.copyOf(leadOf, size * 2);
+        }
+        int e = size++;
+        ats[e] = at;
+        ids[e] = id;
+        leadOf[e] = lead;
+        while (e > 0 && less(e, (e - 1) / 2)) {
+            swap(e, (e - 1) / 2);
+            e = (e - 1) / 2;
+        }
+    }
+
+    private void pop() {
+        size--;
+        swap(0, size);
+        down(0);
+    }
+
+    private void down(int e) {
+        while (true) {
+            int least = e;
+            for (int child = 2 * e + 1; child <= 2 * e + 2 && child < size; child++) {
+                if (less(child, least)) {
+                    least = child;
+                }
+            }
+            if (least == e) {
+                return;
+            }
+            swap(e, least);
+            e = least;
+        }
+    }
+
+    /** Orders entries by time, then by id and lead; {@link ReminderQueue} breaks ties by insertion instead. */
+    private boolean less(int a, int b) {
+        if (ats[a] != ats[b]) {
+            return ats[a] < ats[b];
+        }
+        return ids[a] != ids[b] ? ids[a] < ids[b] : leadOf[a] < leadOf[b];
+    }
+
+    private void swap(int a, int b) {
+        long at = ats[a];
+        ats[a] = ats[b];
+        ats[b] = at;
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        int lead = leadOf[a];
+        leadOf[a] = leadOf[b];
+        leadOf[b] = lead;
+    }
+}
@@ -0,0 +1,533 @@
+package friday.model;
+
+import friday.ui.Response;
+import friday.ui.Ui;
+import friday.storage.Storage;
+import friday.exception.FridayException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A {@link TaskStore} for very large lists that keeps its tasks in {@link TaskColumns} instead of one
+ * object per task, trading the indexes of {@link TaskList} for a much smaller heap: queries scan the columns,
+ * and the tasks they return are built on demand. Sorted orders break ties by id rather than by insertion.
+ * <p>
+ * Retained heap per task, measured with {@code friday.bench.Footprint} on the synthetic tasks of the
+ * benchmarks (a third each of todos, deadlines and events, every description different):
+ * <pre>
+ *                     List&lt;Task&gt;   TaskList   CompactTaskList
+ *   100,000 tasks       202 B       543 B         86 B
+ *   1,000,000 tasks     198 B       491 B         92 B
+ * </pre>
+ * {@code TaskList} adds its id map, keyword and time indexes to the task objects. The columns need about
+ * 40 bytes per task plus the description text, their id table and position tree included; repeated
+ * descriptions are stored once, so real lists with recurring tasks need less.
+ * <p>
+ * A task is found by number or {@code #id} in O(log n) and removed without moving the others: its row is
+ * left dead until dead rows outnumber the live ones, when the columns are copied without them.
+ * <p>
+ * Reminders wait in a {@link ColumnReminderQueue} keyed by id, so a tick when none is due costs O(1). There
+ * is no undo.
+ * <p>
+ * Every method takes a {@link StampedLock}: reads share it, writes are exclusive.
+ */
+public class CompactTaskList implements TaskStore {
+    private TaskColumns columns = new TaskColumns();
+    private TaskColumns beforeBatch;
+    private final StampedLock lock = new StampedLock();
+    private long lastId;
+    private final ColumnReminderQueue reminders = new ColumnReminderQueue();
+    private volatile List<Task> snapshot = List.of();
+
+    @Override
+    public List<Task> all() {
+        List<Task> s = snapshot;
+        if (s != null) {
+            return s;
+        }
+        long stamp = lock.readLock();
+        try {
+            s = Collections.unmodifiableList(columns.copy());
+            snapshot = s;
+            return s;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void setAll(List<Task> newTasks) {
+        long stamp = lock.writeLock();
+        try {
+            lastId = Task.assignIds(newTasks, lastId);
+            columns = new TaskColumns(newTasks.size());
+            columns.addAll(newTasks);
+            reminders.rebuild(columns);
+            snapshot = null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return columns.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Task get(int oneBased) throws FridayException {
+        long stamp = lock.readLock();
+        try {
+            if (oneBased < 1 || oneBased > columns.size()) {
+                throw new FridayException("That task number does not exist.");
+            }
+            return columns.get(oneBased - 1);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Task get(String ref) throws FridayException {
+        long stamp = lock.readLock();
+        try {
+            return columns.task(row(ref));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public List<Task> page(int from, int to) {
+        long stamp = lock.readLock();
+        try {
+            int end = Math.min(to, columns.size());
+            List<Task> page = new ArrayList<>(Math.max(0, end - from));
+            for (int i = from; i < end; i++) {
+                page.add(columns.get(i));
+            }
+            return page;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** Returns the row of a one-based task number or {@code #id}; the caller holds a lock. */
+    private int row(String ref) throws FridayException {
+        long id = Task.parseId(ref);
+        if (id != 0) {
+            int row = columns.rowOfId(id);
+            if (row < 0) {
+                throw new FridayException("There is no task #" + id + ".");
+            }
+            return row;
+        }
+        int i;
+        try {
+            i = Integer.parseInt(ref.trim()) - 1;
+        } catch (NumberFormatException e) {
+            throw new FridayException("Refer to a task by its number or #id.");
+        }
+        if (i < 0 || i >= columns.size()) {
+            throw new FridayException("That task number does not exist.");
+        }
+        return columns.rowAt(i);
+    }
+
+    @Override
+    public Response add(Task t, Ui ui, Storage storage) throws IOException {
+        assert t != null;
+        long stamp = lock.writeLock();
+        try {
+            if (t.id == 0) {
+                t.id = ++lastId;
+            }
+            lastId = Math.max(lastId, t.id);
+            columns.add(t);
+            reminders.add(columns.rows() - 1, columns);
+            snapshot = null;
+            storage.appendAdd(t, columns);
+            return ui.added(t, columns.size());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Response remove(String ref, Ui ui, Storage storage) throws FridayException, IOException {
+        long stamp = lock.writeLock();
+        try {
+            int row = row(ref);
+            Task t = columns.task(row);
+            columns.removeRow(row);
+            removed();
+            storage.appendDelete(t, columns);
+            return ui.removed(t, columns.size());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Response toggle(String ref, boolean mark, Ui ui, Storage storage) throws FridayException, IOException {
+        long stamp = lock.writeLock();
+        try {
+            int row = row(ref);
+            boolean unmarked = columns.isDone(row) && !mark;
+            columns.setDone(row, mark);
+            if (unmarked) {
+                reminders.add(row, columns);
+            }
+            snapshot = null;
+            Task t = columns.task(row);
+            storage.appendMark(t, mark, columns);
+            return ui.toggled(t, mark);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Response removeAll(Selection selection, Ui ui, Storage storage) throws FridayException, IOException {
+        long stamp = lock.writeLock();
+        try {
+            BitSet chosen = select(selection);
+            List<Task> gone = tasksAt(chosen);
+            columns.removeAll(chosen);
+            removed();
+            storage.appendDeletes(gone, columns);
+            return ui.removedAll(gone.size(), columns.size());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Response toggleAll(Selection selection, boolean mark, Ui ui, Storage storage)
+            throws FridayException, IOException {
+        long stamp = lock.writeLock();
+        try {
+            BitSet chosen = select(selection);
+            BitSet changed = new BitSet();
+            for (int i = chosen.nextSetBit(0); i >= 0; i = chosen.nextSetBit(i + 1)) {
+                if (columns.isDone(i) != mark) {
+                    columns.setDone(i, mark);
+                    if (!mark) {
+                        reminders.add(i, columns);
+                    }
+                    changed.set(i);
+                }
+            }
+            snapshot = null;
+            storage.appendMarks(tasksAt(changed), mark, columns);
+            return ui.toggledAll(chosen.cardinality(), changed.cardinality(), mark);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Not kept: remembering what to restore would hold the very task objects this list avoids. */
+    @Override
+    public Response undo(Ui ui, Storage storage) throws FridayException {
+        throw new FridayException("Undo is not available with the columnar task store.");
+    }
+
+    @Override
+    public Response redo(Ui ui, Storage storage) throws FridayException {
+        throw new FridayException("Redo is not available with the columnar task store.");
+    }
+
+    /** Starts a batch by copying the columns, in O(n), since there is no undo log to reverse it with. */
+    @Override
+    public void beginBatch() {
+        long stamp = lock.writeLock();
+        try {
+            beforeBatch = columns.copy();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void endBatch() {
+        long stamp = lock.writeLock();
+        try {
+            beforeBatch = null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Puts back the columns copied by {@link #beginBatch()} and records them as a snapshot. */
+    @Override
+    public void abortBatch(Storage storage) throws IOException {
+        long stamp = lock.writeLock();
+        try {
+            if (beforeBatch != null) {
+                columns = beforeBatch;
+                beforeBatch = null;
+                reminders.rebuild(columns);
+                snapshot = null;
+                storage.save(columns);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Drops the dead rows and the text of removed tasks once they outnumber the live tasks. */
+    private void removed() {
+        snapshot = null;
+        int dead = columns.rows() - columns.size();
+        if (dead > columns.size() && dead > 1024) {
+            columns = columns.copy();
+        }
+    }
+
+    /** Returns the rows of the tasks in {@code s}; the caller holds the write lock. */
+    private BitSet select(Selection s) throws FridayException {
+        int n = columns.size();
+        BitSet out = new BitSet(columns.rows());
+        switch (s.kind) {
+        case ALL:
+        case DONE:
+        case UNDONE:
+            for (int row = 0; row < columns.rows(); row++) {
+                if (columns.isLive(row)
+                        && (s.kind == Selection.Kind.ALL || columns.isDone(row) == (s.kind == Selection.Kind.DONE))) {
+                    out.set(row);
+                }
+            }
+            return out;
+        case FIND:
+            return matching(s.keyword);
+        default:
+            break;
+        }
+        for (int i = 0; i < s.refs.length; i += 2) {
+            if (s.refs[i] < 0) {
+                int row = columns.rowOfId(-s.refs[i]);
+                if (row < 0) {
+                    throw new FridayException("There is no task #" + -s.refs[i] + ".");
+                }
+                out.set(row);
+            } else if (s.refs[i + 1] > n) {
+                throw new FridayException("That task number does not exist.");
+            } else {
+                int row = columns.rowAt((int) s.refs[i] - 1);
+                for (long left = s.refs[i + 1] - s.refs[i] + 1; left > 0; row++) {
+                    if (columns.isLive(row)) {
+                        out.set(row);
+                        left--;
+                    }
+                }
+            }
+        }
+        return out;
+    }
+
+    /** Returns the rows of tasks containing the lower-cased {@code keyword}, testing each description once. */
+    private BitSet matching(String keyword) {
+        BitSet tested = new BitSet();
+        BitSet matched = new BitSet();
+        BitSet out = new BitSet();
+        for (int row = 0; row < columns.rows(); row++) {
+            if (!columns.isLive(row)) {
+                continue;
+            }
+            int d = columns.descriptionIndex(row);
+            if (!tested.get(d)) {
+                tested.set(d);
+                if (columns.description(row).toLowerCase().contains(keyword)) {
+                    matched.set(d);
+                }
+            }
+            if (matched.get(d)) {
+                out.set(row);
+            }
+        }
+        return out;
+    }
+
+    private List<Task> tasksAt(BitSet rows) {
+        List<Task> out = new ArrayList<>(rows.cardinality());
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            out.add(columns.task(row));
+        }
+        return out;
+    }
+
+    @Override
+    public List<Task> find(String keyword) {
+        long stamp = lock.readLock();
+        try {
+            return tasksAt(matching(keyword.toLowerCase()));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public List<Task> dueBy(LocalDateTime end) {
+        long until = end.toEpochSecond(ZoneOffset.UTC);
+        long stamp = lock.readLock();
+        try {
+            List<Integer> hits = new ArrayList<>();
+            for (int row = 0; row < columns.rows(); row++) {
+                if (columns.type(row) == 'D' && columns.first(row) <= until) {
+                    hits.add(row);
+                }
+            }
+            return inOrder(hits, Comparator.comparingLong(columns::first));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public List<Task> between(LocalDateTime start, LocalDateTime end) {
+        long from = start.toEpochSecond(ZoneOffset.UTC);
+        long to = end.toEpochSecond(ZoneOffset.UTC);
+        long stamp = lock.readLock();
+        try {
+            List<Integer> hits = new ArrayList<>();
+            for (int row = 0; row < columns.rows(); row++) {
+                char type = columns.type(row);
+                if (type == 'D' && columns.first(row) >= from && columns.first(row) <= to
+                        || type == 'E' && columns.first(row) <= to && columns.second(row) >= from) {
+                    hits.add(row);
+                }
+            }
+            // deadlines before events starting at the same time, as in TaskList
+            return inOrder(hits, Comparator.<Integer>comparingLong(columns::first)
+                    .thenComparing(i -> columns.type(i) != 'D'));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public List<Task> sorted(SortKey key, int from, int to) {
+        long stamp = lock.readLock();
+        try {
+            List<Integer> all = liveRows();
+            all.sort(order(key));
+            return tasksIn(all.subList(Math.min(from, all.size()), Math.min(to, all.size())));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public int[] numbersOf(List<Task> some) {
+        int[] numbers = new int[some.size()];
+        long stamp = lock.readLock();
+        try {
+            for (int i = 0; i < numbers.length; i++) {
+                int row = columns.rowOfId(some.get(i).id);
+                numbers[i] = row < 0 ? 0 : columns.positionOf(row) + 1;
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return numbers;
+    }
+
+    @Override
+    public void remindBefore(List<Duration> leads) {
+        long stamp = lock.writeLock();
+        try {
+            reminders.setLeads(leads, columns);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Costs O(log n) per reminder returned and nothing more when none is due. */
+    @Override
+    public List<Task> takeReminders(LocalDateTime now) {
+        long stamp = lock.writeLock();
+        try {
+            return tasksIn(reminders.take(now.toEpochSecond(ZoneOffset.UTC), columns));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void sortByType() {
+        long stamp = lock.writeLock();
+        try {
+            List<Integer> all = liveRows();
+            all.sort(order(SortKey.TYPE));
+            int[] order = new int[all.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = all.get(i);
+            }
+            columns.permute(order);
+            snapshot = null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Returns the rows of the tasks in list order. */
+    private List<Integer> liveRows() {
+        List<Integer> out = new ArrayList<>(columns.size());
+        for (int row = 0; row < columns.rows(); row++) {
+            if (columns.isLive(row)) {
+                out.add(row);
+            }
+        }
+        return out;
+    }
+
+    /** Returns the order of {@code key} over rows of the columns, ties broken by id. */
+    private Comparator<Integer> order(SortKey key) {
+        Comparator<Integer> primary;
+        switch (key) {
+        case TYPE:
+            primary = Comparator.comparingInt(i -> "DTE".indexOf(columns.type(i)) & 3);
+            break;
+        case TIME:
+            primary = Comparator.<Integer, Boolean>comparing(i -> columns.type(i) == 'T')
+                    .thenComparingLong(i -> columns.type(i) == 'T' ? 0 : columns.first(i));
+            break;
+        case DONE:
+            primary = Comparator.comparing(columns::isDone);
+            break;
+        default:
+            primary = Comparator.comparing(i -> columns.description(i).toLowerCase());
+            break;
+        }
+        return primary.thenComparingLong(columns::id);
+    }
+
+    /** Returns the tasks in {@code rows} sorted by {@code order}, keeping list order among equals. */
+    private List<Task> inOrder(List<Integer> rows, Comparator<Integer> order) {
+        rows.sort(order);
+        return tasksIn(rows);
+    }
+
+    private List<Task> tasksIn(List<Integer> rows) {
+        List<Task> out = new ArrayList<>(rows.size());
+        for (int row : rows) {
+            out.add(columns.task(row));
+        }
+        return out;
+    }
+}
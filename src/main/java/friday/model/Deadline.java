@@ -12,6 +12,9 @@ public class Deadline extends Task {
         super(d);
         this.due = due;
     }
+    public LocalDateTime getDue() {
+        return due;
+    }
     String typeIcon() {
         return "[D]";
     }
@@ -19,7 +22,7 @@ public class Deadline extends Task {
         return " (by: " + Parser.formatForDisplay(due) + ")";
     }
     @Override
-    public String toStorage() {
+    String encode() {
         return String.format("D | %d | %s | %s", done ? 1 : 0, desc, due);
     }
 }
\ No newline at end of file
@@ -13,6 +13,12 @@ public class Event extends Task {
         this.from = from;
         this.to = to;
     }
+    public LocalDateTime getFrom() {
+        return from;
+    }
+    public LocalDateTime getTo() {
+        return to;
+    }
     String typeIcon() {
         return "[E]";
     }
@@ -20,7 +26,7 @@ public class Event extends Task {
         return " (from: " + Parser.formatForDisplay(from) + " to: " + Parser.formatForDisplay(to) + ")";
     }
     @Override
-    public String toStorage() {
+    String encode() {
         return String.format("E | %d | %s | %s | %s", done ? 1 : 0, desc, from, to);
     }
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+package friday.model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Pending reminders for the deadlines and events of a {@link TaskList}, kept up to date by it like its other
+ * indexes.
+ * <p>
+ * Every task that is not done has one entry per lead time, due at the task's time minus the lead, in a
+ * {@link TreeSet} ordered by that moment. The next reminder is therefore the first entry, and adding,
+ * removing or marking a task touches only its own entries, in O(log n) each.
+ */
+class ReminderQueue {
+    private final TreeSet<Entry> queue = new TreeSet<>();
+    private List<Duration> leads = List.of();
+    private LocalDateTime takenUpTo;
+
+    /** Replaces the lead times and re-queues {@code tasks} with them. */
+    void setLeads(List<Duration> leads, Collection<Task> tasks) {
+        this.leads = List.copyOf(leads);
+        takenUpTo = null;
+        rebuild(tasks);
+    }
+
+    void add(Task t) {
+        LocalDateTime at = SortKey.time(t);
+        if (at == null || t.isDone()) {
+            return;
+        }
+        for (int i = 0; i < leads.size(); i++) {
+            queue.add(new Entry(at.minus(leads.get(i)), t, i));
+        }
+    }
+
+    void remove(Task t) {
+        LocalDateTime at = SortKey.time(t);
+        if (at == null) {
+            return;
+        }
+        for (int i = 0; i < leads.size(); i++) {
+            queue.remove(new Entry(at.minus(leads.get(i)), t, i));
+        }
+    }
+
+    /** Re-queues {@code tasks}, leaving out the reminders already taken. */
+    void rebuild(Collection<Task> tasks) {
+        queue.clear();
+        for (Task t : tasks) {
+            add(t);
+        }
+        while (takenUpTo != null && !queue.isEmpty() && !queue.first().at.isAfter(takenUpTo)) {
+            queue.pollFirst();
+        }
+    }
+
+    /**
+     * Removes every entry due at or before {@code now} and returns their tasks, each once, in the order their
+     * reminders fell due. Tasks whose time has already come are dropped without a reminder.
+     */
+    List<Task> take(LocalDateTime now) {
+        takenUpTo = takenUpTo == null || now.isAfter(takenUpTo) ? now : takenUpTo;
+        Set<Task> due = new LinkedHashSet<>();
+        while (!queue.isEmpty() && !queue.first().at.isAfter(now)) {
+            Task t = queue.pollFirst().task;
+            if (!SortKey.time(t).isBefore(now)) {
+                due.add(t);
+            }
+        }
+        return new ArrayList<>(due);
+    }
+
+    /** One reminder: {@code task} is due to be reminded of at {@code at}, by its {@code lead}-th lead time. */
+    private static class Entry implements Comparable<Entry> {
+        final LocalDateTime at;
+        final Task task;
+        final int lead;
+
+        Entry(LocalDateTime at, Task task, int lead) {
+            this.at = at;
+            this.task = task;
+            this.lead = lead;
+        }
+
+        @Override
+        public int compareTo(Entry o) {
+            int c = at.compareTo(o.at);
+            if (c == 0) {
+                c = Long.compare(task.seq, o.task.seq);
+            }
+            return c != 0 ? c : Integer.compare(lead, o.lead);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package friday.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import friday.exception.FridayException;
+
+/**
+ * The tasks a bulk {@code mark}, {@code unmark} or {@code delete} applies to: {@code all}, {@code done},
+ * {@code undone}, {@code find <keyword>}, or a comma-separated list of task numbers, ranges such as
+ * {@code 10-250} and {@code #id}s. It is resolved against the list by {@link TaskList} under its write lock,
+ * so the tasks chosen are exactly the ones changed.
+ */
+public final class Selection {
+    enum Kind { ALL, DONE, UNDONE, FIND, REFS }
+
+    final Kind kind;
+    final String keyword;
+    /** For {@link Kind#REFS}: pairs of one-based numbers {@code from, to}, or {@code -id, 0} for an id. */
+    final long[] refs;
+    private final boolean single;
+
+    private Selection(Kind kind, String keyword, long[] refs, boolean single) {
+        this.kind = kind;
+        this.keyword = keyword;
+        this.refs = refs;
+        this.single = single;
+    }
+
+    /**
+     * Parses {@code spec}, e.g. {@code 3,7,10-250} or {@code find book}.
+     * @throws FridayException if {@code spec} is none of the accepted forms
+     */
+    public static Selection parse(String spec) throws FridayException {
+        String s = spec.trim();
+        switch (s) {
+        case "all": return new Selection(Kind.ALL, null, null, false);
+        case "done": return new Selection(Kind.DONE, null, null, false);
+        case "undone": return new Selection(Kind.UNDONE, null, null, false);
+        default: break;
+        }
+        if (s.startsWith("find ")) {
+            String keyword = s.substring(5).trim();
+            if (keyword.isEmpty()) {
+                throw new FridayException("Give a keyword to find, e.g. find book.");
+            }
+            return new Selection(Kind.FIND, keyword.toLowerCase(), null, false);
+        }
+        List<Long> refs = new ArrayList<>();
+        String[] parts = s.split(",");
+        for (String part : parts) {
+            String p = part.trim();
+            long id = Task.parseId(p);
+            try {
+                if (id != 0) {
+                    refs.add(-id);
+                    refs.add(0L);
+                } else {
+                    int dash = p.indexOf('-', 1);
+                    long from = Long.parseLong(dash < 0 ? p : p.substring(0, dash).trim());
+                    long to = dash < 0 ? from : Long.parseLong(p.substring(dash + 1).trim());
+                    if (from < 1 || to < from) {
+                        throw new FridayException("That task number does not exist.");
+                    }
+                    refs.add(from);
+                    refs.add(to);
+                }
+            } catch (NumberFormatException e) {
+                throw new FridayException("Refer to tasks by number, range (e.g. 3,7,10-250), #id, "
+                        + "all, done, undone or find <keyword>.");
+            }
+        }
+        long[] out = new long[refs.size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = refs.get(i);
+        }
+        boolean single = parts.length == 1 && (out[0] < 0 || s.indexOf('-', 1) < 0);
+        return new Selection(Kind.REFS, null, out, single);
+    }
+
+    /** Returns whether this names exactly one task by number or id, e.g. {@code 3} or {@code #12}. */
+    public boolean isSingle() {
+        return single;
+    }
+}
@@ -0,0 +1,58 @@
+package friday.model;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Orders offered by {@code sort by <key>}. Every order ends with the task's insertion sequence,
+ * so no two tasks compare equal and each can be found again in a sorted set.
+ */
+public enum SortKey {
+    /** Deadlines, then todos, then events. */
+    TYPE(Comparator.comparingInt(t -> typeRank(t.typeCode()))),
+    /** Deadlines by due time and events by start time, todos last. */
+    TIME(Comparator.comparing(SortKey::time, Comparator.nullsLast(Comparator.naturalOrder()))),
+    /** Pending tasks first. */
+    DONE(Comparator.comparing(Task::isDone)),
+    /** Alphabetically, ignoring case. */
+    DESC(Comparator.comparing(Task::key));
+
+    final Comparator<Task> order;
+
+    SortKey(Comparator<Task> primary) {
+        this.order = primary.thenComparingLong(t -> t.seq);
+    }
+
+    /** Returns the key named {@code name} (e.g. {@code time}), or null if there is none. */
+    public static SortKey parse(String name) {
+        for (SortKey k : values()) {
+            if (k.name().equalsIgnoreCase(name.trim())) {
+                return k;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    private static int typeRank(char type) {
+        switch (type) {
+        case 'D': return 1;
+        case 'T': return 2;
+        case 'E': return 3;
+        default: return 4;
+        }
+    }
+
+    /** Returns the due time of a deadline or start of an event, or null for a todo. */
+    static LocalDateTime time(Task t) {
+        if (t instanceof Deadline) {
+            return ((Deadline) t).due;
+        }
+        return t instanceof Event ? ((Event) t).from : null;
+    }
+}
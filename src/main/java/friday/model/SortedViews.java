@@ -0,0 +1,60 @@
+package friday.model;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Sorted views of the task list, one red-black tree per {@link SortKey}, kept up to date by {@link TaskList}.
+ * <p>
+ * A view is built the first time it is asked for and from then on follows every add, remove and toggle
+ * in O(log n), so showing it again costs only the rows shown. The list itself is never reordered.
+ * Not thread-safe; {@link TaskList} guards it with its lock.
+ */
+class SortedViews {
+    private final Map<SortKey, TreeSet<Task>> views = new EnumMap<>(SortKey.class);
+
+    void add(Task t) {
+        for (TreeSet<Task> v : views.values()) {
+            v.add(t);
+        }
+    }
+
+    void remove(Task t) {
+        for (TreeSet<Task> v : views.values()) {
+            v.remove(t);
+        }
+    }
+
+    /** Sets the done flag of {@code t}, moving it within the view ordered by it. */
+    void toggle(Task t, boolean done) {
+        TreeSet<Task> byDone = views.get(SortKey.DONE);
+        if (byDone != null && t.isDone() != done) {
+            byDone.remove(t);
+            t.setDone(done);
+            byDone.add(t);
+        } else {
+            t.setDone(done);
+        }
+    }
+
+    /** Drops every view, e.g. after the list was replaced; they are rebuilt on demand. */
+    void clear() {
+        views.clear();
+    }
+
+    boolean has(SortKey key) {
+        return views.containsKey(key);
+    }
+
+    /** Returns the view for {@code key}, building it from {@code tasks} if it was not kept yet. */
+    NavigableSet<Task> get(SortKey key, List<Task> tasks) {
+        return views.computeIfAbsent(key, k -> {
+            TreeSet<Task> v = new TreeSet<>(k.order);
+            v.addAll(tasks);
+            return v;
+        });
+    }
+}
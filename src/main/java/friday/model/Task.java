@@ -1,9 +1,10 @@
 package friday.model;
 
-import friday.logic.Parser;
+import friday.logic.DateInput;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Contains the blueprint of all tasks (
@@ -13,8 +14,17 @@ import java.time.LocalDateTime;
  */
 
 public abstract class Task {
+    private static final DateInput DATES = new DateInput();
+
     final String desc;
     boolean done;
+    private String key;
+    private String shown;       // cached display(), valid while its status matches done
+    private String stored;      // cached toStorage() once the task has an id, likewise
+    long id;                    // persistent identifier, 0 until assigned; see assignIds
+    int indexSlot = -1;         // slot in TaskIndex, maintained by TaskList
+    int listSlot = -1;          // slot in TaskArray, maintained by TaskList
+    long seq;                   // insertion order, the tie-break of SortKey orders; maintained by TaskList
 
     Task(String d) {
         this.desc = d;
@@ -26,56 +36,190 @@ public abstract class Task {
     String extra() {
         return "";
     }
+    public boolean isDone() {
+        return done;
+    }
+    public void setDone(boolean done) {
+        this.done = done;
+    }
+    /**
+     * Returns e.g. {@code [D][X] return book (by: Jan 1 2024)}. The line is formatted once and kept; only the
+     * done flag can change afterwards, and the status it shows is checked on every call, so a toggle costs one
+     * re-patch of the status rather than formatting dates again. Concurrent callers may race to fill the cache,
+     * but every cached line is checked against {@link #done} before it is used.
+     */
     public String display() {
-        return typeIcon() + statusIcon() + " " + desc + extra();
+        String s = shown;
+        if (s == null) {
+            s = typeIcon() + statusIcon() + " " + desc + extra();
+            shown = s;
+        } else if ((s.charAt(4) == 'X') != done) {
+            s = s.substring(0, 3) + statusIcon() + s.substring(6);
+            shown = s;
+        }
+        return s;
     }
 
-    /** Encode: TYPE | done(0/1) | desc [| time(s)] */
+    /**
+     * Encode: TYPE | done(0/1) | desc [| time(s)] [| #id]. Cached like {@link #display()} once the task has an
+     * id, which never changes after that.
+     */
     public String toStorage() {
+        if (id == 0) {
+            return encode();
+        }
+        String s = stored;
+        if (s == null) {
+            s = encode() + " | #" + id;
+            stored = s;
+        } else if ((s.charAt(4) == '1') != done) {
+            s = s.substring(0, 4) + (done ? '1' : '0') + s.substring(5);
+            stored = s;
+        }
+        return s;
+    }
+
+    /** Returns the type-specific fields of {@link #toStorage()}, without the id. */
+    String encode() {
         return String.format("%s | %d | %s", typeIcon().substring(1,2), done ? 1 : 0, desc);
     }
 
+    /** Returns the persistent id shown as {@code #id}, or 0 if none was assigned yet. */
+    public long id() {
+        return id;
+    }
+
+    /**
+     * Gives every task without an id the next id after {@code lastId} and every id in {@code tasks},
+     * in list order, so the same file always yields the same ids.
+     * @return the largest id in {@code tasks} or {@code lastId}, whichever is larger, afterwards
+     */
+    public static long assignIds(List<Task> tasks, long lastId) {
+        long max = lastId;
+        for (Task t : tasks) {
+            max = Math.max(max, t.id);
+        }
+        for (Task t : tasks) {
+            if (t.id == 0) {
+                t.id = ++max;
+            }
+        }
+        return max;
+    }
+
+    /** Returns the single-letter type code used by both storage formats: T, D or E. */
+    public char typeCode() {
+        return typeIcon().charAt(1);
+    }
+
+    public String description() {
+        return desc;
+    }
+
+    /**
+     * Creates a task from its stored fields.
+     * @param type T, D or E
+     * @param first due time of a deadline or start of an event, ignored for todos
+     * @param second end of an event, ignored otherwise
+     */
+    public static Task of(char type, boolean done, String desc, LocalDateTime first, LocalDateTime second) {
+        return of(type, done, desc, first, second, 0);
+    }
+
+    /** Creates a task from its stored fields, including its persistent {@code id} (0 if it has none). */
+    public static Task of(char type, boolean done, String desc, LocalDateTime first, LocalDateTime second,
+            long id) {
+        Task t;
+        switch (type) {
+        case 'T': t = new ToDo(desc); break;
+        case 'D': t = new Deadline(desc, first); break;
+        case 'E': t = new Event(desc, first, second); break;
+        default: throw new IllegalArgumentException("Unknown type: " + type);
+        }
+        t.done = done;
+        t.id = id;
+        return t;
+    }
+
     public static Task fromStorage(String line) {
-        String[] p = line.split("\\s*\\|\\s*");
+        String[] p = fields(line);
         if (p.length < 3) {
             throw new IllegalArgumentException("Bad line: " + line);
         }
         String type = p[0]; boolean done = "1".equals(p[1]); String desc = p[2];
-        Task t;
         switch (type) {
-        case "T": t = new ToDo(desc); break;
+        case "T": return of('T', done, desc, null, null, id(p, 3));
         case "D":
             if (p.length < 4) {
                 throw new IllegalArgumentException("friday.model.Deadline missing time: " + line);
             }
-            t = new Deadline(desc, parseIsoOrFlexible(p[3])); break;
+            return of('D', done, desc, parseIsoOrFlexible(p[3]), null, id(p, 4));
         case "E":
             if (p.length < 5) {
                 throw new IllegalArgumentException("friday.model.Event missing time: " + line);
             }
-            t = new Event(desc, parseIsoOrFlexible(p[3]), parseIsoOrFlexible(p[4])); break;
+            return of('E', done, desc, parseIsoOrFlexible(p[3]), parseIsoOrFlexible(p[4]), id(p, 5));
         default: throw new IllegalArgumentException("Unknown type: " + type);
         }
-        t.done = done;
-        return t;
+    }
+
+    /** Returns the {@code #id} field at {@code at}, or 0 for lines written before tasks had ids. */
+    private static long id(String[] p, int at) {
+        if (p.length <= at || !p[at].startsWith("#")) {
+            return 0;
+        }
+        return Long.parseLong(p[at].substring(1));
+    }
+
+    /** Parses a task reference of the form {@code #id}; returns 0 if {@code ref} is not one. */
+    public static long parseId(String ref) {
+        if (ref.length() < 2 || ref.charAt(0) != '#') {
+            return 0;
+        }
+        for (int i = 1; i < ref.length(); i++) {
+            if (!Character.isDigit(ref.charAt(i))) {
+                return 0;
+            }
+        }
+        return ref.length() > 19 ? 0 : Long.parseLong(ref.substring(1));
+    }
+
+    /** Splits {@code line} on '|' and trims every field, without compiling a regular expression. */
+    private static String[] fields(String line) {
+        int n = 1;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '|') n++;
+        }
+        String[] out = new String[n];
+        int start = 0;
+        for (int f = 0; f < n; f++) {
+            int end = f == n - 1 ? line.length() : line.indexOf('|', start);
+            int a = start;
+            int b = end;
+            while (a < b && Character.isWhitespace(line.charAt(a))) a++;
+            while (b > a && Character.isWhitespace(line.charAt(b - 1))) b--;
+            out[f] = line.substring(a, b);
+            start = end + 1;
+        }
+        return out;
     }
 
     // ISO or fallback used by friday.storage:
     private static LocalDateTime parseIsoOrFlexible(String s) {
-        try {
-            return LocalDateTime.parse(s);
-        } catch (Exception ignored) {}
-        try {
-            return LocalDate.parse(s).atStartOfDay();
-        } catch (Exception ignored) {}
-        try {
-            return Parser.parseDT(s);
-        } catch (Exception ignored) {}
-        return LocalDate.of(1970,1,1).atStartOfDay();
+        LocalDateTime dt = DATES.parse(s);
+        return dt != null ? dt : LocalDate.of(1970,1,1).atStartOfDay();
+    }
+
+    /** Returns the lower-cased description, computed once and used for keyword search. */
+    String key() {
+        if (key == null) {
+            key = desc.toLowerCase();
+        }
+        return key;
     }
 
     public boolean matches(String keyword) {
-        return desc.toLowerCase().contains(keyword.toLowerCase());
+        return key().contains(keyword.toLowerCase());
     }
 }
 
@@ -0,0 +1,263 @@
+package friday.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+/**
+ * The task list behind {@link TaskList}: an array of slots in list order in which removal leaves a tombstone
+ * instead of shifting every later task.
+ * <p>
+ * A Fenwick tree over the slots counts the live tasks before each slot, so the task at a position and the
+ * position of a task are both found in O(log n). Tombstones are squeezed out once they outnumber the
+ * live tasks, which keeps removal amortised O(log n).
+ */
+class TaskArray extends AbstractList<Task> implements RandomAccess {
+    private Task[] slots = new Task[16];
+    private int[] tree = new int[17];           // Fenwick tree of live flags, one-based
+    private int used;
+    private int live;
+
+    @Override
+    public int size() {
+        return live;
+    }
+
+    @Override
+    public Task get(int index) {
+        return slots[slotOf(index)];
+    }
+
+    @Override
+    public boolean add(Task t) {
+        if (used == slots.length) {
+            compact(Math.max(16, live * 2));
+        }
+        slots[used] = t;
+        t.listSlot = used;
+        bump(used, 1);
+        used++;
+        live++;
+        return true;
+    }
+
+    @Override
+    public Task remove(int index) {
+        int slot = slotOf(index);
+        Task t = slots[slot];
+        slots[slot] = null;
+        t.listSlot = -1;
+        bump(slot, -1);
+        live--;
+        if (used - live > live && used - live > 1024) {
+            compact(slots.length);
+        }
+        return t;
+    }
+
+    /**
+     * Removes every task matching {@code filter} in one pass. Like {@link #remove(int)} it leaves tombstones,
+     * so the tasks can be put back in place by {@link #insert(int, Task)}.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Task> filter) {
+        int before = live;
+        for (int i = 0; i < used; i++) {
+            if (slots[i] != null && filter.test(slots[i])) {
+                slots[i].listSlot = -1;
+                slots[i] = null;
+                live--;
+            }
+        }
+        if (live == before) {
+            return false;
+        }
+        if (used - live > live && used - live > 1024) {
+            compact(slots.length);
+        } else {
+            buildTree();
+        }
+        return true;
+    }
+
+    /**
+     * Inserts {@code t} at zero-based {@code index}. If a tombstone is left between its neighbours, as when
+     * a removal is undone, it is reused in O(log n); otherwise the later tasks are shifted in O(n).
+     */
+    void insert(int index, Task t) {
+        if (index < 0 || index > live) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        int lo = index == 0 ? -1 : slotOf(index - 1);
+        int hi = index == live ? used : slotOf(index);
+        if (hi - lo > 1) {
+            slots[lo + 1] = t;                  // the first free slot, so a run put back in order fits the run
+            t.listSlot = lo + 1;
+            bump(lo + 1, 1);
+            live++;
+            return;
+        }
+        if (index == live) {
+            add(t);
+            return;
+        }
+        compact(used == slots.length ? Math.max(16, live * 2) : slots.length);
+        System.arraycopy(slots, index, slots, index + 1, used - index);
+        slots[index] = t;
+        used++;
+        live++;
+        for (int i = index; i < used; i++) {
+            slots[i].listSlot = i;
+        }
+        buildTree();
+    }
+
+    /** Returns the zero-based position of {@code t}, or -1 if it is not in this list. */
+    int positionOf(Task t) {
+        int slot = t.listSlot;
+        if (slot < 0 || slot >= used || slots[slot] != t) {
+            return -1;
+        }
+        return prefix(slot);
+    }
+
+    @Override
+    public void clear() {
+        slots = new Task[16];
+        tree = new int[17];
+        used = 0;
+        live = 0;
+    }
+
+    @Override
+    public void sort(Comparator<? super Task> order) {
+        compact(slots.length);
+        Arrays.sort(slots, 0, used, order);
+        for (int i = 0; i < used; i++) {
+            slots[i].listSlot = i;
+        }
+    }
+
+    /** Returns a copy of the tasks at positions {@code [from, to)}, reading the slots in one pass. */
+    List<Task> copy(int from, int to) {
+        List<Task> out = new ArrayList<>(Math.max(0, to - from));
+        if (from >= to) {
+            return out;
+        }
+        for (int slot = slotOf(from); out.size() < to - from; slot++) {
+            if (slots[slot] != null) {
+                out.add(slots[slot]);
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<>() {
+            private int slot = next(0);
+
+            private int next(int from) {
+                while (from < used && slots[from] == null) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return slot < used;
+            }
+
+            @Override
+            public Task next() {
+                if (slot >= used) {
+                    throw new NoSuchElementException();
+                }
+                Task t = slots[slot];
+                slot = next(slot + 1);
+                return t;
+            }
+        };
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] out = new Object[live];
+        int n = 0;
+        for (int i = 0; i < used; i++) {
+            if (slots[i] != null) {
+                out[n++] = slots[i];
+            }
+        }
+        return out;
+    }
+
+    /** Returns the slot holding the task at zero-based {@code index}. */
+    private int slotOf(int index) {
+        if (index < 0 || index >= live) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        int pos = 0;
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next < tree.length && tree[next] < remaining) {
+                pos = next;
+                remaining -= tree[next];
+            }
+        }
+        return pos;                             // tree node pos + 1, i.e. slot pos, holds the task
+    }
+
+    /** Returns the number of live tasks in slots before {@code slot}. */
+    private int prefix(int slot) {
+        int sum = 0;
+        for (int i = slot; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    private void bump(int slot, int delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /** Moves the live tasks to the front of a {@code capacity}-slot array and rebuilds the tree in O(n). */
+    private void compact(int capacity) {
+        Task[] packed = new Task[Math.max(capacity, live)];
+        int n = 0;
+        for (int i = 0; i < used; i++) {
+            if (slots[i] != null) {
+                packed[n] = slots[i];
+                packed[n].listSlot = n;
+                n++;
+            }
+        }
+        slots = packed;
+        used = n;
+        buildTree();
+    }
+
+    /** Rebuilds the tree over the current slots in O(n). */
+    private void buildTree() {
+        tree = new int[slots.length + 1];
+        for (int i = 1; i < tree.length; i++) {
+            if (i <= used && slots[i - 1] != null) {
+                tree[i]++;
+            }
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
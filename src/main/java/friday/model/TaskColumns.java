@@ -0,0 +1,464 @@
+package friday.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * Struct-of-arrays task storage behind {@link CompactTaskList}: one primitive array per field instead of
+ * one object per task. Times are epoch seconds (UTC, as in {@code friday.storage.BinaryStore}), done flags
+ * are bits, and descriptions are UTF-8 in a shared byte heap, stored once however many tasks use them.
+ * <p>
+ * Tasks sit in rows in list order. As in {@link TaskArray}, removal leaves a dead row instead of shifting
+ * every later task, and a Fenwick tree over the rows turns a position into its row and back in O(log n).
+ * A hash table from id to row finds a {@code #id} in O(1); it holds row numbers only and compares against
+ * the id column, so it costs a few bytes per task. Dead rows and the text of removed tasks stay until the
+ * columns are copied with {@link #copy()}.
+ * <p>
+ * The list methods take positions; the methods that read or change a single field take rows, so that a scan
+ * can walk the rows and skip the dead ones with {@link #isLive(int)}. {@link #task(int)} builds a fresh
+ * {@link Task} on every call, so changing that task does not change the columns; use
+ * {@link #setDone(int, boolean)}.
+ */
+class TaskColumns extends AbstractList<Task> implements RandomAccess {
+    private byte[] types = new byte[16];        // 0 for a dead row
+    private long[] done = new long[1];
+    private long[] first = new long[16];        // due time of a deadline or start of an event
+    private long[] second = new long[16];       // end of an event
+    private int[] descs = new int[16];          // index into descStart/descEnd
+    private long[] ids = new long[16];
+    private int rows;
+    private int live;
+    private int[] tree = new int[17];           // Fenwick tree of live rows, one-based
+    private int[] byId = new int[32];           // open addressing: row + 1, or 0 if free
+
+    private byte[] heap = new byte[256];
+    private int heapUsed;
+    private int[] descStart = new int[16];
+    private int[] descEnd = new int[16];
+    private int descCount;
+    private int[] table = new int[32];          // open addressing: description index + 1, or 0 if free
+
+    TaskColumns() {
+    }
+
+    /** Creates columns with room for {@code capacity} tasks. */
+    TaskColumns(int capacity) {
+        ensure(capacity);
+    }
+
+    @Override
+    public int size() {
+        return live;
+    }
+
+    /** Returns the task at zero-based position {@code i}. */
+    @Override
+    public Task get(int i) {
+        return task(rowAt(i));
+    }
+
+    /** Builds the task in {@code row}. */
+    Task task(int row) {
+        return Task.of((char) types[row], isDone(row), description(row), time(first[row]), time(second[row]),
+                ids[row]);
+    }
+
+    @Override
+    public boolean add(Task t) {
+        if (rows == types.length) {
+            grow();
+        }
+        int row = rows++;
+        types[row] = (byte) t.typeCode();
+        first[row] = epoch(firstTime(t));
+        second[row] = epoch(t instanceof Event ? ((Event) t).to : null);
+        descs[row] = intern(t.desc);
+        ids[row] = t.id;
+        setDone(row, t.done);
+        bump(row, 1);
+        live++;
+        putId(row);
+        return true;
+    }
+
+    /** Returns the number of rows, dead ones included; rows are numbered from 0. */
+    int rows() {
+        return rows;
+    }
+
+    boolean isLive(int row) {
+        return types[row] != 0;
+    }
+
+    char type(int row) {
+        return (char) types[row];
+    }
+
+    boolean isDone(int row) {
+        return (done[row >>> 6] & (1L << row)) != 0;
+    }
+
+    void setDone(int row, boolean value) {
+        if (value) {
+            done[row >>> 6] |= 1L << row;
+        } else {
+            done[row >>> 6] &= ~(1L << row);
+        }
+    }
+
+    /** Returns the due time of a deadline or start of an event in epoch seconds; meaningless for todos. */
+    long first(int row) {
+        return first[row];
+    }
+
+    /** Returns the end of an event in epoch seconds; meaningless otherwise. */
+    long second(int row) {
+        return second[row];
+    }
+
+    long id(int row) {
+        return ids[row];
+    }
+
+    String description(int row) {
+        int d = descs[row];
+        return new String(heap, descStart[d], descEnd[d] - descStart[d], StandardCharsets.UTF_8);
+    }
+
+    /** Returns the index of the shared description in {@code row}; equal descriptions share an index. */
+    int descriptionIndex(int row) {
+        return descs[row];
+    }
+
+    /** Returns the row of the task with {@code id}, or -1. */
+    int rowOfId(long id) {
+        int mask = byId.length - 1;
+        for (int h = hash(id) & mask; byId[h] != 0; h = (h + 1) & mask) {
+            if (ids[byId[h] - 1] == id) {
+                return byId[h] - 1;
+            }
+        }
+        return -1;
+    }
+
+    /** Returns the row of the task at zero-based position {@code i}. */
+    int rowAt(int i) {
+        if (i < 0 || i >= live) {
+            throw new IndexOutOfBoundsException(i);
+        }
+        if (live == rows) {
+            return i;
+        }
+        int pos = 0;
+        int remaining = i + 1;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next < tree.length && tree[next] < remaining) {
+                pos = next;
+                remaining -= tree[next];
+            }
+        }
+        return pos;                             // tree node pos + 1, i.e. row pos, holds the task
+    }
+
+    /** Returns the zero-based position of the task in live {@code row}. */
+    int positionOf(int row) {
+        int sum = 0;
+        for (int i = row; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public Task remove(int i) {
+        int row = rowAt(i);
+        Task t = task(row);
+        removeRow(row);
+        return t;
+    }
+
+    /**
+     * Removes the tasks in the live rows set in {@code gone}.
+     * @return the number of tasks removed
+     */
+    int removeAll(BitSet gone) {
+        int removed = 0;
+        for (int row = gone.nextSetBit(0); row >= 0; row = gone.nextSetBit(row + 1)) {
+            removeRow(row);
+            removed++;
+        }
+        return removed;
+    }
+
+    /** Removes the task in live {@code row}, leaving the row dead. */
+    void removeRow(int row) {
+        removeId(row);
+        types[row] = 0;
+        setDone(row, false);
+        bump(row, -1);
+        live--;
+    }
+
+    @Override
+    public void clear() {
+        types = new byte[16];
+        done = new long[1];
+        first = new long[16];
+        second = new long[16];
+        descs = new int[16];
+        ids = new long[16];
+        rows = 0;
+        live = 0;
+        tree = new int[17];
+        byId = new int[32];
+        heap = new byte[256];
+        heapUsed = 0;
+        descStart = new int[16];
+        descEnd = new int[16];
+        descCount = 0;
+        table = new int[32];
+    }
+
+    /** Returns an independent copy holding only the live rows and the text still in use. */
+    TaskColumns copy() {
+        TaskColumns c = new TaskColumns(live);
+        int n = 0;
+        for (int row = 0; row < rows; row++) {
+            if (isLive(row)) {
+                c.types[n] = types[row];
+                c.setDone(n, isDone(row));
+                c.first[n] = first[row];
+                c.second[n] = second[row];
+                c.ids[n] = ids[row];
+                int d = descs[row];
+                c.descs[n] = c.intern(heap, descStart[d], descEnd[d]);
+                n++;
+            }
+        }
+        c.rows = n;
+        c.live = n;
+        c.rebuild();
+        return c;
+    }
+
+    /** Reorders the columns so that row {@code i} holds what was in row {@code order[i]}, dropping the rest. */
+    void permute(int[] order) {
+        byte[] t = new byte[types.length];
+        long[] d = new long[done.length];
+        long[] f = new long[first.length];
+        long[] s = new long[second.length];
+        int[] ds = new int[descs.length];
+        long[] id = new long[ids.length];
+        for (int i = 0; i < order.length; i++) {
+            int from = order[i];
+            t[i] = types[from];
+            if (isDone(from)) {
+                d[i >>> 6] |= 1L << i;
+            }
+            f[i] = first[from];
+            s[i] = second[from];
+            ds[i] = descs[from];
+            id[i] = ids[from];
+        }
+        types = t;
+        done = d;
+        first = f;
+        second = s;
+        descs = ds;
+        ids = id;
+        rows = order.length;
+        live = order.length;
+        rebuild();
+    }
+
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<>() {
+            private int row = next(0);
+
+            private int next(int from) {
+                while (from < rows && !isLive(from)) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return row < rows;
+            }
+
+            @Override
+            public Task next() {
+                if (row >= rows) {
+                    throw new NoSuchElementException();
+                }
+                Task t = task(row);
+                row = next(row + 1);
+                return t;
+            }
+        };
+    }
+
+    private void bump(int row, int delta) {
+        for (int i = row + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /** Rebuilds the tree and the id table over the current rows in O(n). */
+    private void rebuild() {
+        tree = new int[types.length + 1];
+        for (int i = 1; i < tree.length; i++) {
+            if (i <= rows && isLive(i - 1)) {
+                tree[i]++;
+            }
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+        byId = new int[Math.max(32, Integer.highestOneBit(Math.max(1, live * 2 - 1)) * 2)];
+        for (int row = 0; row < rows; row++) {
+            if (isLive(row)) {
+                putId(row);
+            }
+        }
+    }
+
+    private void putId(int row) {
+        if (live * 2 > byId.length) {
+            int[] old = byId;
+            byId = new int[old.length * 2];
+            for (int r : old) {
+                if (r != 0) {
+                    putId(r - 1);
+                }
+            }
+        }
+        int mask = byId.length - 1;
+        int h = hash(ids[row]) & mask;
+        while (byId[h] != 0) {
+            h = (h + 1) & mask;
+        }
+        byId[h] = row + 1;
+    }
+
+    /** Takes {@code row} out of the id table, moving later entries of its probe run back into the gap. */
+    private void removeId(int row) {
+        int mask = byId.length - 1;
+        int h = hash(ids[row]) & mask;
+        while (byId[h] != row + 1) {
+            h = (h + 1) & mask;
+        }
+        for (int next = (h + 1) & mask; byId[next] != 0; next = (next + 1) & mask) {
+            int home = hash(ids[byId[next] - 1]) & mask;
+            if (((next - home) & mask) >= ((next - h) & mask)) {
+                byId[h] = byId[next];
+                h = next;
+            }
+        }
+        byId[h] = 0;
+    }
+
+    private void grow() {
+        ensure(Math.max(16, rows * 2));
+    }
+
+    private void ensure(int capacity) {
+        if (capacity <= types.length) {
+            return;
+        }
+        types = Arrays.copyOf(types, capacity);
+        done = Arrays.copyOf(done, (capacity + 63) >>> 6);
+        first = Arrays.copyOf(first, capacity);
+        second = Arrays.copyOf(second, capacity);
+        descs = Arrays.copyOf(descs, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        rebuild();
+    }
+
+    private int intern(String desc) {
+        byte[] utf8 = desc.getBytes(StandardCharsets.UTF_8);
+        return intern(utf8, 0, utf8.length);
+    }
+
+    /** Returns the index of the description {@code bytes[from, to)}, adding it to the heap if it is new. */
+    private int intern(byte[] bytes, int from, int to) {
+        int mask = table.length - 1;
+        int h = hash(bytes, from, to) & mask;
+        while (table[h] != 0) {
+            int d = table[h] - 1;
+            if (Arrays.equals(heap, descStart[d], descEnd[d], bytes, from, to)) {
+                return d;
+            }
+            h = (h + 1) & mask;
+        }
+        int len = to - from;
+        if (heapUsed + len > heap.length) {
+            heap = Arrays.copyOf(heap, Math.max(heap.length * 2, heapUsed + len));
+        }
+        System.arraycopy(bytes, from, heap, heapUsed, len);
+        if (descCount == descStart.length) {
+            descStart = Arrays.copyOf(descStart, descCount * 2);
+            descEnd = Arrays.copyOf(descEnd, descCount * 2);
+        }
+        int d = descCount++;
+        descStart[d] = heapUsed;
+        descEnd[d] = heapUsed + len;
+        heapUsed += len;
+        table[h] = d + 1;
+        if (descCount * 2 > table.length) {
+            rehash();
+        }
+        return d;
+    }
+
+    private void rehash() {
+        table = new int[table.length * 2];
+        int mask = table.length - 1;
+        for (int d = 0; d < descCount; d++) {
+            int h = hash(heap, descStart[d], descEnd[d]) & mask;
+            while (table[h] != 0) {
+                h = (h + 1) & mask;
+            }
+            table[h] = d + 1;
+        }
+    }
+
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int hash(byte[] bytes, int from, int to) {
+        int h = 1;
+        for (int i = from; i < to; i++) {
+            h = 31 * h + bytes[i];
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static LocalDateTime firstTime(Task t) {
+        if (t instanceof Deadline) {
+            return ((Deadline) t).due;
+        }
+        return t instanceof Event ? ((Event) t).from : null;
+    }
+
+    private static long epoch(LocalDateTime dt) {
+        return dt == null ? 0 : dt.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime time(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+}
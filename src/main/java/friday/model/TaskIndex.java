@@ -0,0 +1,188 @@
+package friday.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trigram index over lower-cased task descriptions, kept up to date by {@link TaskList}.
+ * <p>
+ * Every indexed task gets a slot number in list order, and each trigram maps to the ascending slots of
+ * the tasks containing it. A keyword of {@value #GRAM} or more characters is answered by intersecting
+ * the posting lists of its trigrams, rarest first, and confirming each survivor with a substring check,
+ * so a query only touches tasks that share every trigram of the keyword. Removal just clears the slot;
+ * stale postings are dropped when the index is rebuilt once dead slots outnumber live ones.
+ * Shorter keywords have too little selectivity and are scanned instead.
+ */
+class TaskIndex {
+    static final int GRAM = 3;
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private Task[] slots = new Task[16];
+    private int used;
+    private int dead;
+    private int generation;                 // bumped by every rebuild, which renumbers the slots
+
+    void add(Task t) {
+        if (used == slots.length) {
+            slots = Arrays.copyOf(slots, used * 2);
+        }
+        int slot = used++;
+        slots[slot] = t;
+        t.indexSlot = slot;
+        for (long g : grams(t.key())) {
+            postings.computeIfAbsent(g, k -> new Postings()).add(slot);
+        }
+    }
+
+    /**
+     * Forgets {@code t}. Rebuilds from {@code tasks} (the list after removal) once most slots are dead.
+     */
+    void remove(Task t, List<Task> tasks) {
+        slots[t.indexSlot] = null;
+        t.indexSlot = -1;
+        if (++dead > tasks.size() && dead > 1024) {
+            rebuild(tasks);
+        }
+    }
+
+    /** Forgets every task in {@code removed}, then rebuilds from {@code tasks} once if most slots are dead. */
+    void removeAll(Collection<Task> removed, List<Task> tasks) {
+        for (Task t : removed) {
+            slots[t.indexSlot] = null;
+            t.indexSlot = -1;
+        }
+        dead += removed.size();
+        if (dead > tasks.size() && dead > 1024) {
+            rebuild(tasks);
+        }
+    }
+
+    /** Identifies the current slot numbering; a slot noted under an older one no longer means anything. */
+    int generation() {
+        return generation;
+    }
+
+    /**
+     * Puts a removed task back into {@code slot}, which it held under {@code generation}. Its postings are
+     * still there, so this is O(1) and keeps the index in list order.
+     * @return false if the slots were renumbered since, in which case nothing changed
+     */
+    boolean restore(Task t, int slot, int generation) {
+        if (generation != this.generation || slot < 0 || slot >= used || slots[slot] != null) {
+            return false;
+        }
+        slots[slot] = t;
+        t.indexSlot = slot;
+        dead--;
+        return true;
+    }
+
+    /** Re-indexes {@code tasks} from scratch, e.g. after they were replaced or reordered. */
+    void rebuild(Collection<Task> tasks) {
+        generation++;
+        postings.clear();
+        slots = new Task[Math.max(16, tasks.size())];
+        used = 0;
+        dead = 0;
+        for (Task t : tasks) {
+            add(t);
+        }
+    }
+
+    /**
+     * Returns tasks whose description contains {@code keyword}, in list order.
+     * @param keyword lower-cased keyword
+     * @param tasks the full list, scanned only for keywords shorter than {@value #GRAM}
+     */
+    List<Task> find(String keyword, List<Task> tasks) {
+        List<Task> out = new ArrayList<>();
+        if (keyword.length() < GRAM) {
+            for (Task t : tasks) {
+                if (t.key().contains(keyword)) out.add(t);
+            }
+            return out;
+        }
+        long[] grams = grams(keyword);
+        Postings[] lists = new Postings[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.get(grams[i]);
+            if (lists[i] == null) {
+                return out;
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        int[] candidates = Arrays.copyOf(lists[0].slots, lists[0].size);
+        int n = candidates.length;
+        for (int i = 1; i < lists.length && n > 0; i++) {
+            n = lists[i].retain(candidates, n);
+        }
+        for (int i = 0; i < n; i++) {
+            Task t = slots[candidates[i]];
+            if (t != null && t.key().contains(keyword)) out.add(t);
+        }
+        return out;
+    }
+
+    /** Returns the distinct trigrams of {@code s}, each packed as three 16-bit chars. */
+    private static long[] grams(String s) {
+        int n = s.length() - GRAM + 1;
+        if (n <= 0) {
+            return new long[0];
+        }
+        long[] out = new long[n];
+        for (int i = 0; i < n; i++) {
+            out[i] = ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+        }
+        Arrays.sort(out);
+        int distinct = 1;
+        for (int i = 1; i < n; i++) {
+            if (out[i] != out[distinct - 1]) out[distinct++] = out[i];
+        }
+        return distinct == n ? out : Arrays.copyOf(out, distinct);
+    }
+
+    /** Growable list of ascending slot numbers. */
+    private static class Postings {
+        int[] slots = new int[4];
+        int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        /**
+         * Keeps only the first {@code n} ascending {@code candidates} that also occur here, galloping
+         * through this list so the cost follows the candidate count rather than this list's size.
+         * @return number of candidates kept
+         */
+        int retain(int[] candidates, int n) {
+            int kept = 0;
+            int lo = 0;
+            for (int i = 0; i < n && lo < size; i++) {
+                int c = candidates[i];
+                int step = 1;
+                int hi = lo;
+                while (hi < size && slots[hi] < c) {
+                    lo = hi + 1;
+                    hi += step;
+                    step <<= 1;
+                }
+                int at = Arrays.binarySearch(slots, lo, Math.min(hi + 1, size), c);
+                if (at >= 0) {
+                    candidates[kept++] = c;
+                    lo = at + 1;
+                } else {
+                    lo = -at - 1;
+                }
+            }
+            return kept;
+        }
+    }
+}
@@ -1,81 +1,637 @@
 package friday.model;
 
+import friday.ui.Response;
 import friday.ui.Ui;
 import friday.storage.Storage;
 import friday.exception.FridayException;
+import friday.model.UndoLog.Change;
+import friday.model.UndoLog.Step;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
 
 /**
  * Consists of all methods that modify the task list.
+ * <p>
+ * Safe for concurrent use: writes take the write side of a {@link StampedLock} and are applied one at a time,
+ * together with their journal record. Single reads such as {@link #get(int)}, {@link #size()} and
+ * {@link #page(int, int)} are optimistic: they read without locking and retry under the read lock only if a
+ * write happened meanwhile. Queries that walk an index hold the read lock, so any number of them run at once.
+ * <p>
+ * Tasks are addressed by position or by their persistent {@code #id}, found through a hash index. Removal
+ * leaves a tombstone in a {@link TaskArray} rather than shifting the tasks after it.
+ * <p>
+ * Every change is also remembered in an {@link UndoLog} by what it takes to reverse it, for {@link #undo}
+ * and {@link #redo}. Replacing the whole list with {@link #setAll(List)} forgets them.
  */
-public class TaskList {
-    private final List<Task> tasks = new ArrayList<>();
+public class TaskList implements TaskStore {
+    private final TaskArray tasks = new TaskArray();
+    private final Map<Long, Task> byId = new HashMap<>();
+    private final TaskIndex index = new TaskIndex();
+    private final TimeIndex times = new TimeIndex();
+    private final SortedViews views = new SortedViews();
+    private final ReminderQueue reminders = new ReminderQueue();
+    private final UndoLog history = new UndoLog();
+    private final StampedLock lock = new StampedLock();
+    private long nextSeq;
+    private long lastId;
+    private volatile List<Task> snapshot = List.of();
 
+    /** Returns an immutable snapshot of the list; it is copied at most once per change. */
+    @Override
     public List<Task> all() {
-        return tasks;
+        List<Task> s = snapshot;
+        if (s != null) {
+            return s;
+        }
+        long stamp = lock.readLock();
+        try {
+            s = List.copyOf(tasks);
+            snapshot = s;                       // writers clear it under the write lock, so this cannot be stale
+            return s;
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
+    @Override
     public void setAll(List<Task> newTasks) {
-        tasks.clear();
-        tasks.addAll(newTasks);
+        long stamp = lock.writeLock();
+        try {
+            tasks.clear();
+            tasks.addAll(newTasks);
+            lastId = Task.assignIds(tasks, lastId);
+            byId.clear();
+            for (Task t : tasks) {
+                t.seq = nextSeq++;
+                byId.put(t.id, t);
+            }
+            index.rebuild(tasks);
+            times.rebuild(tasks);
+            views.clear();
+            reminders.rebuild(tasks);
+            history.clear();
+            snapshot = null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int n = tasks.size();
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                n = tasks.size();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return n;
     }
 
+    @Override
     public Task get(int oneBased) throws FridayException {
-        int i = oneBased - 1;
+        long stamp = lock.tryOptimisticRead();
+        Task t = at(oneBased - 1);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                t = at(oneBased - 1);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (t == null) {
+            throw new FridayException("That task number does not exist.");
+        }
+        return t;
+    }
+
+    /**
+     * Returns the task referred to by {@code ref}: a one-based task number or {@code #id}.
+     * @throws FridayException if there is no such task
+     */
+    @Override
+    public Task get(String ref) throws FridayException {
+        long stamp = lock.readLock();
+        try {
+            return tasks.get(position(ref));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** Returns a copy of the tasks at zero-based positions {@code [from, to)}, clamped to the list. */
+    @Override
+    public List<Task> page(int from, int to) {
+        long stamp = lock.tryOptimisticRead();
+        List<Task> page = copy(from, to);
+        if (page == null || !lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                page = copy(from, to);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return page;
+    }
+
+    /** Returns the task at zero-based {@code i}, or null; under an optimistic read the result may be torn. */
+    private Task at(int i) {
+        try {
+            return i >= 0 && i < tasks.size() ? tasks.get(i) : null;
+        } catch (IndexOutOfBoundsException e) {
+            return null;                        // raced with a write; the caller's validation fails
+        }
+    }
+
+    private List<Task> copy(int from, int to) {
+        try {
+            int end = Math.min(to, tasks.size());
+            return from >= end ? List.of() : tasks.copy(from, end);
+        } catch (RuntimeException e) {
+            return null;                        // raced with a write; retried under the read lock
+        }
+    }
+
+    /**
+     * Returns the zero-based position of the task referred to by {@code ref}, a one-based task number or
+     * {@code #id}; the caller holds a lock.
+     */
+    private int position(String ref) throws FridayException {
+        long id = Task.parseId(ref);
+        if (id != 0) {
+            Task t = byId.get(id);
+            if (t == null) {
+                throw new FridayException("There is no task #" + id + ".");
+            }
+            return tasks.positionOf(t);
+        }
+        int i;
+        try {
+            i = Integer.parseInt(ref.trim()) - 1;
+        } catch (NumberFormatException e) {
+            throw new FridayException("Refer to a task by its number or #id.");
+        }
         if (i < 0 || i >= tasks.size()) {
             throw new FridayException("That task number does not exist.");
         }
-        return tasks.get(i);
+        return i;
     }
 
-    public void add(Task t, Ui ui, Storage storage) throws IOException {
+    @Override
+    public Response add(Task t, Ui ui, Storage storage) throws IOException {
         assert t != null;
-        tasks.add(t);
-        storage.save(tasks);
-        ui.added(t, tasks.size());
+        long stamp = lock.writeLock();
+        try {
+            t.seq = nextSeq++;
+            if (t.id == 0) {
+                t.id = ++lastId;
+            }
+            lastId = Math.max(lastId, t.id);
+            byId.put(t.id, t);
+            tasks.add(t);
+            index.add(t);
+            times.add(t);
+            views.add(t);
+            reminders.add(t);
+            history.record(new Change(Change.Kind.ADD, new Task[] {t}, new int[] {tasks.size() - 1}));
+            snapshot = null;
+            storage.appendAdd(t, tasks);
+            return ui.added(t, tasks.size());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
-    public void remove(int oneBased, Ui ui, Storage storage) throws FridayException, IOException {
-        assert get(oneBased) != null;
-        Task t = get(oneBased);
-        tasks.remove(oneBased - 1);
-        storage.save(tasks);
-        ui.removed(t, tasks.size());
+    /** Removes the task referred to by {@code ref}, a one-based task number or {@code #id}. */
+    @Override
+    public Response remove(String ref, Ui ui, Storage storage) throws FridayException, IOException {
+        long stamp = lock.writeLock();
+        try {
+            int i = position(ref);
+            Task t = tasks.get(i);
+            Change c = new Change(Change.Kind.DELETE, new Task[] {t}, new int[] {i});
+            detach(c);
+            history.record(c);
+            storage.appendDelete(t, tasks);
+            return ui.removed(t, tasks.size());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
-    public void toggle(int oneBased, boolean mark, Ui ui, Storage storage) throws FridayException, IOException {
-        assert get(oneBased) != null;
-        Task t = get(oneBased);
-        t.done = mark;
-        storage.save(tasks);
-        ui.toggled(t, mark);
+    /** Marks or unmarks the task referred to by {@code ref}, a one-based task number or {@code #id}. */
+    @Override
+    public Response toggle(String ref, boolean mark, Ui ui, Storage storage) throws FridayException, IOException {
+        long stamp = lock.writeLock();
+        try {
+            Task t = tasks.get(position(ref));
+            if (t.isDone() != mark) {
+                setDone(t, mark);
+                history.record(new Change(mark ? Change.Kind.MARK : Change.Kind.UNMARK, new Task[] {t}, null));
+            }
+            storage.appendMark(t, mark, tasks);
+            return ui.toggled(t, mark);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
-    public List<Task> find(String keyword) {
-        String k = keyword.toLowerCase();
-        List<Task> out = new ArrayList<>();
-        for (Task t : tasks) {
-            if (t.matches(k)) out.add(t);
+    /**
+     * Removes every task in {@code selection} in one pass over the list and records the removals as a
+     * single write.
+     */
+    @Override
+    public Response removeAll(Selection selection, Ui ui, Storage storage) throws FridayException, IOException {
+        long stamp = lock.writeLock();
+        try {
+            List<Task> chosen = select(selection);
+            if (!chosen.isEmpty()) {
+                int[] positions = new int[chosen.size()];
+                for (int i = 0; i < positions.length; i++) {
+                    positions[i] = tasks.positionOf(chosen.get(i));
+                }
+                Change c = new Change(Change.Kind.DELETE, chosen.toArray(new Task[0]), positions);
+                detach(c);
+                history.record(c);
+            }
+            storage.appendDeletes(chosen, tasks);
+            return ui.removedAll(chosen.size(), tasks.size());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Marks or unmarks every task in {@code selection} and records the changes as a single write. */
+    @Override
+    public Response toggleAll(Selection selection, boolean mark, Ui ui, Storage storage)
+            throws FridayException, IOException {
+        long stamp = lock.writeLock();
+        try {
+            List<Task> chosen = select(selection);
+            List<Task> changed = new ArrayList<>(chosen.size());
+            for (Task t : chosen) {
+                if (t.isDone() != mark) {
+                    setDone(t, mark);
+                    changed.add(t);
+                }
+            }
+            if (!changed.isEmpty()) {
+                history.record(new Change(mark ? Change.Kind.MARK : Change.Kind.UNMARK,
+                        changed.toArray(new Task[0]), null));
+            }
+            storage.appendMarks(changed, mark, tasks);
+            return ui.toggledAll(chosen.size(), changed.size(), mark);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Reverses the latest change that has not been undone: re-inserts removed tasks where they were, removes
+     * added ones, restores done flags or the order before a sort. Costs O(k log n) for a change to k tasks,
+     * except that a sort is undone in O(n).
+     */
+    @Override
+    public Response undo(Ui ui, Storage storage) throws FridayException, IOException {
+        long stamp = lock.writeLock();
+        try {
+            Change c = history.undo();
+            if (c == null) {
+                return ui.nothingToUndo(false);
+            }
+            apply(c, false, storage);
+            return ui.undone(c.kind.name().toLowerCase(), Arrays.asList(c.tasks), tasks.size(), false);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Applies again the latest change taken back by {@link #undo}, if nothing was changed since. */
+    @Override
+    public Response redo(Ui ui, Storage storage) throws FridayException, IOException {
+        long stamp = lock.writeLock();
+        try {
+            Change c = history.redo();
+            if (c == null) {
+                return ui.nothingToUndo(true);
+            }
+            apply(c, true, storage);
+            return ui.undone(c.kind.name().toLowerCase(), Arrays.asList(c.tasks), tasks.size(), true);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Starts a batch; {@link #abortBatch(Storage)} reverses its changes one by one, as undo does. */
+    @Override
+    public void beginBatch() {
+        long stamp = lock.writeLock();
+        try {
+            history.begin();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void endBatch() {
+        long stamp = lock.writeLock();
+        try {
+            history.commit();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Reverses the changes of the batch, latest first, including any it undid or redid. Costs O(k log n) for
+     * changes to k tasks, and tasks it did not touch keep their state, reminders included.
+     */
+    @Override
+    public void abortBatch(Storage storage) throws IOException {
+        long stamp = lock.writeLock();
+        try {
+            for (Step step : history.rollBack()) {
+                apply(step.change, !step.forward, storage);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Redoes ({@code forward}) or undoes {@code c} and saves the result; the caller holds the write lock. */
+    private void apply(Change c, boolean forward, Storage storage) throws IOException {
+        switch (c.kind) {
+        case ADD:
+        case DELETE:
+            if ((c.kind == Change.Kind.ADD) == forward) {
+                attach(c);
+                List<Task> anchors = new ArrayList<>(c.tasks.length);
+                for (int p : c.positions) {
+                    anchors.add(p + 1 < tasks.size() ? tasks.get(p + 1) : null);
+                }
+                storage.appendInserts(Arrays.asList(c.tasks), anchors, tasks);
+            } else {
+                detach(c);
+                storage.appendDeletes(Arrays.asList(c.tasks), tasks);
+            }
+            break;
+        case MARK:
+        case UNMARK:
+            boolean done = (c.kind == Change.Kind.MARK) == forward;
+            for (Task t : c.tasks) {
+                setDone(t, done);
+            }
+            storage.appendMarks(Arrays.asList(c.tasks), done, tasks);
+            break;
+        default:
+            if (forward) {
+                tasks.sort(SortKey.TYPE.order);
+            } else {
+                tasks.clear();
+                tasks.addAll(Arrays.asList(c.tasks));
+            }
+            index.rebuild(tasks);
+            snapshot = null;
+            storage.save(tasks);                // the journal only records changes, so the order needs a snapshot
+            break;
+        }
+    }
+
+    /**
+     * Takes the tasks of {@code c}, which are in the list at {@code c.positions}, out of the list and every
+     * index, noting their keyword index slots so that {@link #attach} can put them back.
+     */
+    private void detach(Change c) {
+        c.indexSlots = new int[c.tasks.length];
+        for (int i = 0; i < c.tasks.length; i++) {
+            c.indexSlots[i] = c.tasks[i].indexSlot;
+        }
+        c.indexGeneration = index.generation();
+        List<Task> gone = Arrays.asList(c.tasks);
+        if (c.tasks.length == 1) {
+            tasks.remove(tasks.positionOf(c.tasks[0]));
+        } else {
+            Set<Task> doomed = Collections.newSetFromMap(new IdentityHashMap<>(c.tasks.length * 2));
+            doomed.addAll(gone);
+            tasks.removeIf(doomed::contains);
+        }
+        index.removeAll(gone, tasks);
+        for (Task t : c.tasks) {
+            byId.remove(t.id);
+        }
+        if (c.tasks.length > tasks.size()) {
+            times.rebuild(tasks);               // cheaper than removing most of the tasks one by one
+            views.clear();
+            reminders.rebuild(tasks);
+        } else {
+            for (Task t : c.tasks) {
+                times.remove(t);
+                views.remove(t);
+                reminders.remove(t);
+            }
+        }
+        snapshot = null;
+    }
+
+    /**
+     * Puts the tasks of {@code c} back at {@code c.positions}, in ascending order, reusing their old list
+     * and keyword index slots when those are still free.
+     */
+    private void attach(Change c) {
+        boolean reindex = false;
+        for (int i = 0; i < c.tasks.length; i++) {
+            Task t = c.tasks[i];
+            tasks.insert(c.positions[i], t);
+            byId.put(t.id, t);
+            reindex = reindex || !index.restore(t, c.indexSlots[i], c.indexGeneration);
+            times.add(t);
+            views.add(t);
+            reminders.add(t);
+        }
+        if (reindex) {
+            index.rebuild(tasks);               // the slots were renumbered meanwhile
+        }
+        snapshot = null;
+    }
+
+    /** Marks or unmarks {@code t}, keeping the views and reminders in step. */
+    private void setDone(Task t, boolean done) {
+        reminders.remove(t);
+        views.toggle(t, done);
+        reminders.add(t);
+    }
+
+    /** Returns the tasks in {@code s}, in list order and each once; the caller holds the write lock. */
+    private List<Task> select(Selection s) throws FridayException {
+        switch (s.kind) {
+        case ALL: return new ArrayList<>(tasks);
+        case FIND: return index.find(s.keyword, tasks);
+        case DONE:
+        case UNDONE:
+            List<Task> out = new ArrayList<>();
+            for (Task t : tasks) {
+                if (t.isDone() == (s.kind == Selection.Kind.DONE)) {
+                    out.add(t);
+                }
+            }
+            return out;
+        default:
+            break;
+        }
+        BitSet picked = new BitSet(tasks.size());
+        for (int i = 0; i < s.refs.length; i += 2) {
+            if (s.refs[i] < 0) {
+                Task t = byId.get(-s.refs[i]);
+                if (t == null) {
+                    throw new FridayException("There is no task #" + -s.refs[i] + ".");
+                }
+                picked.set(tasks.positionOf(t));
+            } else if (s.refs[i + 1] > tasks.size()) {
+                throw new FridayException("That task number does not exist.");
+            } else {
+                picked.set((int) s.refs[i] - 1, (int) s.refs[i + 1]);
+            }
+        }
+        List<Task> out = new ArrayList<>(picked.cardinality());
+        for (int i = picked.nextSetBit(0); i >= 0; i = picked.nextSetBit(i + 1)) {
+            out.add(tasks.get(i));
         }
         return out;
     }
 
-    public void sortByType() {
-        tasks.sort((a, b) -> {
-            int pa = priority(a.typeIcon());
-            int pb = priority(b.typeIcon());
-            return Integer.compare(pa, pb);
-        });
+    @Override
+    public List<Task> find(String keyword) {
+        long stamp = lock.readLock();
+        try {
+            return index.find(keyword.toLowerCase(), tasks);
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
-    private int priority(String typeIcon) {
-        if (typeIcon.startsWith("[D]")) return 1;  // Deadlines first
-        if (typeIcon.startsWith("[T]")) return 2;  // ToDos next
-        if (typeIcon.startsWith("[E]")) return 3;  // Events last
-        return 4; // fallback (unknown)
+    /** Returns deadlines due at or before {@code end}, earliest first. */
+    @Override
+    public List<Task> dueBy(LocalDateTime end) {
+        long stamp = lock.readLock();
+        try {
+            return times.dueBy(end);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** Returns deadlines due within {@code [start, end]} and events overlapping it, by due or start time. */
+    @Override
+    public List<Task> between(LocalDateTime start, LocalDateTime end) {
+        long stamp = lock.readLock();
+        try {
+            return times.between(start, end);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the tasks at zero-based positions {@code [from, to)} of the order given by {@code key},
+     * without changing the order of the list.
+     */
+    @Override
+    public List<Task> sorted(SortKey key, int from, int to) {
+        long stamp = lock.readLock();
+        try {
+            if (!views.has(key)) {
+                lock.unlockRead(stamp);
+                stamp = lock.writeLock();       // the view is built once, then kept up to date by writers
+                views.get(key, tasks);
+                stamp = lock.tryConvertToReadLock(stamp);
+            }
+            List<Task> page = new ArrayList<>(Math.max(0, to - from));
+            Iterator<Task> it = views.get(key, tasks).iterator();
+            for (int i = 0; i < to && it.hasNext(); i++) {
+                Task t = it.next();
+                if (i >= from) {
+                    page.add(t);
+                }
+            }
+            return page;
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    /** Returns the one-based task number of each of {@code some}, in the same order, or 0 if it was removed. */
+    @Override
+    public int[] numbersOf(List<Task> some) {
+        int[] numbers = new int[some.size()];
+        long stamp = lock.readLock();
+        try {
+            for (int i = 0; i < numbers.length; i++) {
+                numbers[i] = tasks.positionOf(some.get(i)) + 1;
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return numbers;
+    }
+
+    /**
+     * Sets how long before each deadline is due, or each event starts, it is reminded of; e.g. one day and
+     * one hour. There are no reminders until this is called.
+     */
+    @Override
+    public void remindBefore(List<Duration> leads) {
+        long stamp = lock.writeLock();
+        try {
+            reminders.setLeads(leads, tasks);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
-}
 
+    /**
+     * Returns the pending deadlines and events whose reminder is due at {@code now}, and forgets those
+     * reminders. Costs O(log n) per reminder returned and nothing more when none is due.
+     */
+    @Override
+    public List<Task> takeReminders(LocalDateTime now) {
+        long stamp = lock.writeLock();
+        try {
+            return reminders.take(now);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Reorders the list itself: deadlines, then todos, then events. */
+    @Override
+    public void sortByType() {
+        long stamp = lock.writeLock();
+        try {
+            history.record(new Change(Change.Kind.SORT, tasks.toArray(new Task[0]), null));
+            tasks.sort(SortKey.TYPE.order);
+            index.rebuild(tasks);   // postings follow list order
+            snapshot = null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+}
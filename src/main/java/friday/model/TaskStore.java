@@ -0,0 +1,117 @@
+package friday.model;
+
+import friday.ui.Response;
+import friday.ui.Ui;
+import friday.storage.Storage;
+import friday.exception.FridayException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The resident task list that commands run against. {@link TaskList} keeps one object per task with indexes
+ * over them; {@link CompactTaskList} keeps columns for very large lists. Both are safe for concurrent use.
+ * <p>
+ * Tasks are addressed by one-based number or by {@code #id}. Every change is recorded in {@code storage} as
+ * it is made, and its reply is composed by {@code ui}.
+ */
+public interface TaskStore {
+    /** Returns an immutable snapshot of the list. */
+    List<Task> all();
+
+    /** Replaces the whole list, e.g. with the tasks just loaded. */
+    void setAll(List<Task> newTasks);
+
+    int size();
+
+    Task get(int oneBased) throws FridayException;
+
+    /**
+     * Returns the task referred to by {@code ref}: a one-based task number or {@code #id}.
+     * @throws FridayException if there is no such task
+     */
+    Task get(String ref) throws FridayException;
+
+    /** Returns a copy of the tasks at zero-based positions {@code [from, to)}, clamped to the list. */
+    List<Task> page(int from, int to);
+
+    /** Appends {@code t}, giving it the next id unless it has one. */
+    Response add(Task t, Ui ui, Storage storage) throws IOException;
+
+    default Response remove(int oneBased, Ui ui, Storage storage) throws FridayException, IOException {
+        return remove(Integer.toString(oneBased), ui, storage);
+    }
+
+    /** Removes the task referred to by {@code ref}, a one-based task number or {@code #id}. */
+    Response remove(String ref, Ui ui, Storage storage) throws FridayException, IOException;
+
+    default Response toggle(int oneBased, boolean mark, Ui ui, Storage storage) throws FridayException, IOException {
+        return toggle(Integer.toString(oneBased), mark, ui, storage);
+    }
+
+    /** Marks or unmarks the task referred to by {@code ref}, a one-based task number or {@code #id}. */
+    Response toggle(String ref, boolean mark, Ui ui, Storage storage) throws FridayException, IOException;
+
+    /** Removes every task in {@code selection} and records the removals as a single write. */
+    Response removeAll(Selection selection, Ui ui, Storage storage) throws FridayException, IOException;
+
+    /** Marks or unmarks every task in {@code selection} and records the changes as a single write. */
+    Response toggleAll(Selection selection, boolean mark, Ui ui, Storage storage)
+            throws FridayException, IOException;
+
+    /** Reverses the latest change that has not been undone. */
+    Response undo(Ui ui, Storage storage) throws FridayException, IOException;
+
+    /** Applies again the latest change taken back by {@link #undo}, if nothing was changed since. */
+    Response redo(Ui ui, Storage storage) throws FridayException, IOException;
+
+    /**
+     * Starts remembering changes so that {@link #abortBatch(Storage)} can take them back, as around a script.
+     * The caller keeps other writers out until {@link #endBatch()} or {@link #abortBatch(Storage)}.
+     */
+    void beginBatch();
+
+    /** Keeps the changes made since {@link #beginBatch()}. */
+    void endBatch();
+
+    /**
+     * Takes back every change made since {@link #beginBatch()}, recording the reversals in {@code storage},
+     * and leaves undo and redo as they were. Call it while {@code storage} is still batching.
+     */
+    void abortBatch(Storage storage) throws IOException;
+
+    /** Returns the tasks whose description contains {@code keyword}, ignoring case, in list order. */
+    List<Task> find(String keyword);
+
+    /** Returns deadlines due at or before {@code end}, earliest first. */
+    List<Task> dueBy(LocalDateTime end);
+
+    /** Returns deadlines due within {@code [start, end]} and events overlapping it, by due or start time. */
+    List<Task> between(LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Returns the tasks at zero-based positions {@code [from, to)} of the order given by {@code key},
+     * without changing the order of the list.
+     */
+    List<Task> sorted(SortKey key, int from, int to);
+
+    /** Returns the one-based task number of each of {@code some}, in the same order, or 0 if it was removed. */
+    int[] numbersOf(List<Task> some);
+
+    /**
+     * Sets how long before each deadline is due, or each event starts, it is reminded of; e.g. one day and
+     * one hour. There are no reminders until this is called.
+     */
+    void remindBefore(List<Duration> leads);
+
+    /**
+     * Returns the pending deadlines and events whose reminder is due at {@code now}, and forgets those
+     * reminders.
+     */
+    List<Task> takeReminders(LocalDateTime now);
+
+    /** Reorders the list itself: deadlines, then todos, then events. */
+    void sortByType();
+}
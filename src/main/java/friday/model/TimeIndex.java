@@ -0,0 +1,211 @@
+package friday.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Time index over {@link Deadline} due times and {@link Event} spans, kept up to date by {@link TaskList}.
+ * <p>
+ * Deadlines sit in a sorted map keyed by due time. Events sit in an interval tree: a treap keyed by start
+ * time whose nodes also record the latest end time in their subtree, so subtrees that finish before the
+ * query window are skipped. Both range queries run in O(log n + k).
+ */
+class TimeIndex {
+    private final TreeMap<LocalDateTime, Set<Task>> deadlines = new TreeMap<>();
+    private final Random priorities = new Random(42);
+    private Node events;
+
+    void add(Task t) {
+        if (t instanceof Deadline) {
+            deadlines.computeIfAbsent(((Deadline) t).due, k -> new LinkedHashSet<>()).add(t);
+        } else if (t instanceof Event) {
+            events = insert(events, (Event) t);
+        }
+    }
+
+    void remove(Task t) {
+        if (t instanceof Deadline) {
+            LocalDateTime due = ((Deadline) t).due;
+            Set<Task> bucket = deadlines.get(due);
+            if (bucket != null && bucket.remove(t) && bucket.isEmpty()) {
+                deadlines.remove(due);
+            }
+        } else if (t instanceof Event) {
+            events = delete(events, (Event) t);
+        }
+    }
+
+    void rebuild(Collection<Task> tasks) {
+        deadlines.clear();
+        events = null;
+        for (Task t : tasks) {
+            add(t);
+        }
+    }
+
+    /** Returns deadlines due at or before {@code end}, earliest first. */
+    List<Task> dueBy(LocalDateTime end) {
+        List<Task> out = new ArrayList<>();
+        for (Set<Task> bucket : deadlines.headMap(end, true).values()) {
+            out.addAll(bucket);
+        }
+        return out;
+    }
+
+    /**
+     * Returns deadlines due within {@code [start, end]} and events overlapping it, ordered by due or start time.
+     */
+    List<Task> between(LocalDateTime start, LocalDateTime end) {
+        List<Task> due = new ArrayList<>();
+        for (Set<Task> bucket : deadlines.subMap(start, true, end, true).values()) {
+            due.addAll(bucket);
+        }
+        List<Task> spanning = new ArrayList<>();
+        collect(events, start, end, spanning);
+
+        List<Task> out = new ArrayList<>(due.size() + spanning.size());
+        int i = 0;
+        int j = 0;
+        while (i < due.size() || j < spanning.size()) {
+            boolean takeDue = j == spanning.size() || (i < due.size()
+                    && !((Deadline) due.get(i)).due.isAfter(((Event) spanning.get(j)).from));
+            out.add(takeDue ? due.get(i++) : spanning.get(j++));
+        }
+        return out;
+    }
+
+    private static void collect(Node n, LocalDateTime start, LocalDateTime end, List<Task> out) {
+        if (n == null || n.maxTo.isBefore(start)) {
+            return;                                  // everything below ends before the window
+        }
+        collect(n.left, start, end, out);
+        if (n.from.isAfter(end)) {
+            return;                                  // this node and its right subtree start after the window
+        }
+        for (Event e : n.bucket) {
+            if (!e.to.isBefore(start)) out.add(e);
+        }
+        collect(n.right, start, end, out);
+    }
+
+    private Node insert(Node n, Event e) {
+        if (n == null) {
+            Node leaf = new Node(e.from, priorities.nextInt());
+            leaf.addToBucket(e);
+            leaf.update();
+            return leaf;
+        }
+        int c = e.from.compareTo(n.from);
+        if (c == 0) {
+            n.addToBucket(e);
+        } else if (c < 0) {
+            n.left = insert(n.left, e);
+            if (n.left.priority > n.priority) {
+                n = rotateRight(n);
+            }
+        } else {
+            n.right = insert(n.right, e);
+            if (n.right.priority > n.priority) {
+                n = rotateLeft(n);
+            }
+        }
+        n.update();
+        return n;
+    }
+
+    private Node delete(Node n, Event e) {
+        if (n == null) {
+            return null;
+        }
+        int c = e.from.compareTo(n.from);
+        if (c < 0) {
+            n.left = delete(n.left, e);
+        } else if (c > 0) {
+            n.right = delete(n.right, e);
+        } else {
+            if (!n.removeFromBucket(e)) {
+                return merge(n.left, n.right);
+            }
+        }
+        n.update();
+        return n;
+    }
+
+    private static Node merge(Node a, Node b) {
+        if (a == null || b == null) {
+            return a == null ? b : a;
+        }
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            a.update();
+            return a;
+        }
+        b.left = merge(a, b.left);
+        b.update();
+        return b;
+    }
+
+    private static Node rotateRight(Node n) {
+        Node l = n.left;
+        n.left = l.right;
+        l.right = n;
+        n.update();
+        return l;
+    }
+
+    private static Node rotateLeft(Node n) {
+        Node r = n.right;
+        n.right = r.left;
+        r.left = n;
+        n.update();
+        return r;
+    }
+
+    /** Treap node holding every event that starts at {@link #from}. */
+    private static class Node {
+        final LocalDateTime from;
+        final int priority;
+        final Set<Event> bucket = new LinkedHashSet<>();
+        LocalDateTime bucketMaxTo;
+        LocalDateTime maxTo;
+        Node left;
+        Node right;
+
+        Node(LocalDateTime from, int priority) {
+            this.from = from;
+            this.priority = priority;
+        }
+
+        void addToBucket(Event e) {
+            bucket.add(e);
+            if (bucketMaxTo == null || e.to.isAfter(bucketMaxTo)) {
+                bucketMaxTo = e.to;
+            }
+        }
+
+        /** Removes {@code e} and returns whether any events remain in the bucket. */
+        boolean removeFromBucket(Event e) {
+            if (bucket.remove(e) && e.to.equals(bucketMaxTo)) {
+                bucketMaxTo = null;
+                for (Event other : bucket) {
+                    if (bucketMaxTo == null || other.to.isAfter(bucketMaxTo)) bucketMaxTo = other.to;
+                }
+            }
+            return !bucket.isEmpty();
+        }
+
+        /** Recomputes {@link #maxTo} from the bucket and both children. */
+        void update() {
+            LocalDateTime max = bucketMaxTo;
+            if (left != null && left.maxTo.isAfter(max)) max = left.maxTo;
+            if (right != null && right.maxTo.isAfter(max)) max = right.maxTo;
+            maxTo = max;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package friday.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * The changes to a {@link TaskList} that can be undone, and those undone that can be redone.
+ * <p>
+ * A change keeps only what it takes to reverse it: the tasks it touched with their positions, or for a sort
+ * the order before it. Undoing a change to k tasks therefore costs O(k log n) rather than restoring a copy
+ * of the list. The log remembers at most {@value #MAX_CHANGES} changes holding at most {@value #MAX_TASKS}
+ * task references in all, forgetting the oldest first; a single change bigger than that, such as sorting
+ * a huge list, clears the log and cannot be undone.
+ * <p>
+ * Between {@link #begin()} and {@link #commit()} the log also keeps a trail of every change made, undone or
+ * redone, whatever its size, so that {@link #rollBack()} can take them all back and leave the log as it was.
+ */
+class UndoLog {
+    static final int MAX_CHANGES = 100;
+    static final int MAX_TASKS = 1 << 20;
+
+    private final Deque<Change> undo = new ArrayDeque<>();
+    private final Deque<Change> redo = new ArrayDeque<>();
+    private long weight;
+    private List<Step> trail;                   // null unless a batch is open
+    private Deque<Change> undoBefore;
+    private Deque<Change> redoBefore;
+    private long weightBefore;
+
+    /** Remembers a new change; the changes undone before it can no longer be redone. */
+    void record(Change c) {
+        if (trail != null) {
+            trail.add(new Step(c, true));
+        }
+        for (Change r : redo) {
+            weight -= r.tasks.length;
+        }
+        redo.clear();
+        if (c.tasks.length > MAX_TASKS) {
+            clear();
+            return;
+        }
+        undo.push(c);
+        weight += c.tasks.length;
+        while (undo.size() > MAX_CHANGES || weight > MAX_TASKS) {
+            weight -= undo.removeLast().tasks.length;
+        }
+    }
+
+    /** Returns the latest change to undo and moves it to the redo side, or null if there is none. */
+    Change undo() {
+        Change c = undo.poll();
+        if (c != null) {
+            redo.push(c);
+            if (trail != null) {
+                trail.add(new Step(c, false));
+            }
+        }
+        return c;
+    }
+
+    /** Returns the latest undone change to redo and moves it back, or null if there is none. */
+    Change redo() {
+        Change c = redo.poll();
+        if (c != null) {
+            undo.push(c);
+            if (trail != null) {
+                trail.add(new Step(c, true));
+            }
+        }
+        return c;
+    }
+
+    /** Starts a batch: remembers the log as it is and starts the trail. */
+    void begin() {
+        trail = new ArrayList<>();
+        undoBefore = new ArrayDeque<>(undo);
+        redoBefore = new ArrayDeque<>(redo);
+        weightBefore = weight;
+    }
+
+    /** Ends the batch, keeping its changes. */
+    void commit() {
+        trail = null;
+        undoBefore = null;
+        redoBefore = null;
+    }
+
+    /**
+     * Ends the batch and puts the log back as it was at {@link #begin()}.
+     * @return the steps of the batch, latest first, for the caller to reverse
+     */
+    List<Step> rollBack() {
+        if (trail == null) {
+            return List.of();
+        }
+        List<Step> steps = trail;
+        undo.clear();
+        undo.addAll(undoBefore);
+        redo.clear();
+        redo.addAll(redoBefore);
+        weight = weightBefore;
+        commit();
+        Collections.reverse(steps);
+        return steps;
+    }
+
+    void clear() {
+        undo.clear();
+        redo.clear();
+        weight = 0;
+    }
+
+    /** A change made ({@code forward}) or undone during a batch. */
+    static final class Step {
+        final Change change;
+        final boolean forward;
+
+        Step(Change change, boolean forward) {
+            this.change = change;
+            this.forward = forward;
+        }
+    }
+
+    /** One change to the list. */
+    static final class Change {
+        enum Kind { ADD, DELETE, MARK, UNMARK, SORT }
+
+        final Kind kind;
+        /**
+         * ADD and DELETE: the tasks in list order; MARK and UNMARK: the tasks whose flag changed; SORT: every
+         * task in the order before.
+         */
+        final Task[] tasks;
+        /** ADD and DELETE: the zero-based position of each task while it is in the list. */
+        final int[] positions;
+        /** Where each task sat in the keyword index when it was last taken out, under {@link #indexGeneration}. */
+        int[] indexSlots;
+        int indexGeneration;
+
+        Change(Kind kind, Task[] tasks, int[] positions) {
+            this.kind = kind;
+            this.tasks = tasks;
+            this.positions = positions;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package friday.storage;
+
+import friday.model.Deadline;
+import friday.model.Event;
+import friday.model.Task;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Compact binary task file, an alternative to the text format of {@link Task#toStorage()}.
+ * <p>
+ * Layout: a {@value #HEADER}-byte header (magic, version, task count), then one fixed-width
+ * {@value #RECORD}-byte record per task (type, done flag, description length and offset, two epoch-second
+ * timestamps, task id), then a heap of UTF-8 descriptions. Version 1 files, whose
+ * {@value #RECORD_V1}-byte records have no id, are still read. A file is read into one heap buffer and a record
+ * is only decoded when its task is requested. Reading rather than mapping it leaves nothing open on the file, so
+ * it can be replaced while the returned list is still in use.
+ * <p>
+ * Run {@code BinaryStore txt2bin <in> <out>} or {@code BinaryStore bin2txt <in> <out>} to convert
+ * losslessly between the two formats.
+ */
+public class BinaryStore {
+    /** File name suffix that makes {@link Storage} use this format for its snapshot. */
+    public static final String SUFFIX = ".bin";
+
+    static final int MAGIC = 0x46524442;            // "FRDB"
+    static final int VERSION = 2;
+    static final int HEADER = 16;
+    static final int RECORD = 36;
+    static final int RECORD_V1 = 28;
+
+    private BinaryStore() {}
+
+    /**
+     * Reads {@code file} and returns a read-only list whose elements are decoded on access.
+     */
+    public static List<Task> open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) {
+                throw new IOException("Binary task file too large to read: " + file);
+            }
+            ByteBuffer buf = ByteBuffer.allocate((int) ch.size());
+            while (buf.hasRemaining()) {
+                if (ch.read(buf) < 0) {
+                    break;
+                }
+            }
+            buf.flip();
+            if (buf.limit() < HEADER || buf.getInt(0) != MAGIC) {
+                throw new IOException("Not a binary task file: " + file);
+            }
+            int version = buf.getInt(4);
+            if (version != VERSION && version != 1) {
+                throw new IOException("Unsupported binary task file version " + version);
+            }
+            int record = version == 1 ? RECORD_V1 : RECORD;
+            int count = buf.getInt(8);
+            if ((long) HEADER + (long) count * record > buf.limit()) {
+                throw new IOException("Truncated binary task file: " + file);
+            }
+            return new StoredTasks(buf, count, record);
+        }
+    }
+
+    /**
+     * Writes {@code tasks} to {@code file}, replacing it atomically via a temporary sibling file.
+     */
+    public static void write(Path file, List<Task> tasks) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(tmp, encode(tasks));
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /** Returns the complete binary file contents for {@code tasks}. */
+    public static byte[] encode(List<Task> tasks) {
+        byte[][] descs = new byte[tasks.size()][];
+        int heap = 0;
+        for (int i = 0; i < descs.length; i++) {
+            descs[i] = tasks.get(i).description().getBytes(StandardCharsets.UTF_8);
+            heap += descs[i].length;
+        }
+        ByteBuffer out = ByteBuffer.allocate(HEADER + descs.length * RECORD + heap);
+        out.putInt(MAGIC).putInt(VERSION).putInt(tasks.size()).putInt(0);
+        int offset = 0;
+        for (int i = 0; i < descs.length; i++) {
+            Task t = tasks.get(i);
+            out.put((byte) t.typeCode());
+            out.put((byte) (t.isDone() ? 1 : 0));
+            out.putShort((short) 0);
+            out.putInt(descs[i].length);
+            out.putInt(offset);
+            out.putLong(epoch(first(t)));
+            out.putLong(epoch(t instanceof Event ? ((Event) t).getTo() : null));
+            out.putLong(t.id());
+            offset += descs[i].length;
+        }
+        for (byte[] d : descs) {
+            out.put(d);
+        }
+        return out.array();
+    }
+
+    private static LocalDateTime first(Task t) {
+        if (t instanceof Deadline) {
+            return ((Deadline) t).getDue();
+        }
+        return t instanceof Event ? ((Event) t).getFrom() : null;
+    }
+
+    private static long epoch(LocalDateTime dt) {
+        return dt == null ? 0 : dt.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /** Read-only view over a file's bytes; each {@link #get(int)} decodes one record. */
+    private static class StoredTasks extends AbstractList<Task> implements RandomAccess {
+        private final ByteBuffer buf;
+        private final int count;
+        private final int record;
+        private final int heap;
+
+        StoredTasks(ByteBuffer buf, int count, int record) {
+            this.buf = buf;
+            this.count = count;
+            this.record = record;
+            this.heap = HEADER + count * record;
+        }
+
+        @Override
+        public Task get(int i) {
+            if (i < 0 || i >= count) {
+                throw new IndexOutOfBoundsException(i);
+            }
+            int at = HEADER + i * record;
+            char type = (char) buf.get(at);
+            boolean done = buf.get(at + 1) != 0;
+            byte[] desc = new byte[buf.getInt(at + 4)];
+            buf.get(heap + buf.getInt(at + 8), desc);
+            LocalDateTime first = LocalDateTime.ofEpochSecond(buf.getLong(at + 12), 0, ZoneOffset.UTC);
+            LocalDateTime second = LocalDateTime.ofEpochSecond(buf.getLong(at + 20), 0, ZoneOffset.UTC);
+            long id = record == RECORD ? buf.getLong(at + 28) : 0;
+            return Task.of(type, done, new String(desc, StandardCharsets.UTF_8), first, second, id);
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+
+    /**
+     * Converts between the text and binary formats.
+     * Usage: {@code txt2bin <in> <out>} or {@code bin2txt <in> <out>}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3 || !(args[0].equals("txt2bin") || args[0].equals("bin2txt"))) {
+            System.out.println("Usage: BinaryStore txt2bin|bin2txt <in> <out>");
+            return;
+        }
+        Path in = Paths.get(args[1]);
+        Path out = Paths.get(args[2]);
+        List<Task> tasks = args[0].equals("txt2bin") ? new Storage(in).load() : open(in);
+        if (args[0].equals("txt2bin")) {
+            write(out, tasks);
+        } else {
+            Storage storage = new Storage(out);
+            storage.save(tasks);
+            storage.close();
+        }
+        System.out.println("Converted " + tasks.size() + " tasks to " + out);
+    }
+}
@@ -0,0 +1,48 @@
+package friday.storage;
+
+/**
+ * How soon {@link Storage} writes mutations to disk. Writes always happen on a background thread;
+ * the mode only decides when that thread is woken. {@link Storage#flush()} and {@link Storage#close()}
+ * force everything out regardless of mode.
+ */
+public enum Durability {
+    /** Write as soon as a mutation is queued, coalescing whatever piles up during the previous write. */
+    EVERY_COMMAND,
+    /** Write at most once per interval, coalescing every mutation queued in between. */
+    INTERVAL,
+    /** Write only when flushed, e.g. on {@code bye}, on exit or at JVM shutdown. */
+    ON_EXIT;
+
+    /**
+     * Parses a setting such as {@code every}, {@code exit} or an interval in milliseconds like {@code 250}.
+     * @return the mode; for a number, {@link #INTERVAL}
+     * @throws IllegalArgumentException if the setting is none of these, or the interval is not positive
+     */
+    public static Durability parse(String setting) {
+        switch (setting.trim().toLowerCase()) {
+        case "every": return EVERY_COMMAND;
+        case "exit": return ON_EXIT;
+        default:
+            intervalMs(setting);
+            return INTERVAL;
+        }
+    }
+
+    /**
+     * Returns the interval in milliseconds of an {@link #INTERVAL} setting such as {@code 250}.
+     * @throws IllegalArgumentException if it is not a positive number
+     */
+    public static long intervalMs(String setting) {
+        long ms;
+        try {
+            ms = Long.parseLong(setting.trim());
+        } catch (NumberFormatException e) {
+            ms = 0;
+        }
+        if (ms <= 0) {
+            throw new IllegalArgumentException("Durability must be every, exit or a positive number of"
+                    + " milliseconds, not '" + setting + "'");
+        }
+        return ms;
+    }
+}
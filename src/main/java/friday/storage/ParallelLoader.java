@@ -0,0 +1,137 @@
+package friday.storage;
+
+import friday.model.Task;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Loads a text task file by reading it into one heap buffer and parsing line-aligned chunks on the fork/join
+ * pool. Chunks are joined back in file order, so the resulting list keeps the order of the file.
+ * The file is not memory-mapped: a live mapping would keep Windows from replacing it on the next save.
+ * Lines that {@link Task#fromStorage(String)} rejects are counted rather than silently dropped.
+ */
+class ParallelLoader {
+    /** Chunks smaller than this are parsed on the current thread. */
+    static final int CHUNK = 1 << 20;
+    /** Files larger than this are streamed instead of read in one piece. */
+    static final long MAX_BUFFERED = 1L << 30;
+
+    private ParallelLoader() {}
+
+    /** Tasks parsed from a file, plus the number of non-blank lines that could not be parsed. */
+    static class Result {
+        final List<Task> tasks;
+        int skipped;
+
+        Result(List<Task> tasks) {
+            this.tasks = tasks;
+        }
+    }
+
+    static Result load(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > MAX_BUFFERED) {
+                return loadSequential(file);
+            }
+            ByteBuffer buf = ByteBuffer.allocate((int) size);
+            while (buf.hasRemaining()) {
+                if (ch.read(buf) < 0) {
+                    break;                  // the file shrank since its size was taken
+                }
+            }
+            return ForkJoinPool.commonPool().invoke(new Chunk(buf, 0, buf.position()));
+        }
+    }
+
+    /** Streams files too large to read in one piece line by line. */
+    private static Result loadSequential(Path file) throws IOException {
+        Result r = new Result(new ArrayList<>());
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                parse(line, r);
+            }
+        }
+        return r;
+    }
+
+    private static void parse(String line, Result r) {
+        if (line.isBlank()) {
+            return;
+        }
+        try {
+            r.tasks.add(Task.fromStorage(line));
+        } catch (IllegalArgumentException e) {
+            r.skipped++;
+        }
+    }
+
+    /** Parses the lines in {@code [from, to)}; both ends sit on line starts. */
+    private static class Chunk extends RecursiveTask<Result> {
+        private static final long serialVersionUID = 1L;
+
+        private final ByteBuffer buf;
+        private final int from;
+        private final int to;
+
+        Chunk(ByteBuffer buf, int from, int to) {
+            this.buf = buf;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from > CHUNK) {
+                int mid = lineStartAfter(from + (to - from) / 2);
+                if (mid > from && mid < to) {
+                    Chunk right = new Chunk(buf, mid, to);
+                    right.fork();
+                    Result left = new Chunk(buf, from, mid).compute();
+                    Result r = right.join();
+                    left.tasks.addAll(r.tasks);
+                    left.skipped += r.skipped;
+                    return left;
+                }
+            }
+            Result r = new Result(new ArrayList<>());
+            byte[] line = new byte[256];
+            int start = from;
+            for (int i = from; i <= to; i++) {
+                if (i == to || buf.get(i) == '\n') {
+                    int end = i;
+                    if (end > start && buf.get(end - 1) == '\r') {
+                        end--;
+                    }
+                    int len = end - start;
+                    if (len > line.length) {
+                        line = new byte[Math.max(len, line.length * 2)];
+                    }
+                    buf.get(start, line, 0, len);
+                    parse(new String(line, 0, len, StandardCharsets.UTF_8), r);
+                    start = i + 1;
+                }
+            }
+            return r;
+        }
+
+        private int lineStartAfter(int pos) {
+            while (pos < to && buf.get(pos - 1) != '\n') {
+                pos++;
+            }
+            return pos;
+        }
+    }
+}
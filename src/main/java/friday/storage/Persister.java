@@ -0,0 +1,331 @@
+package friday.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Write-behind writer for one snapshot file and its journal.
+ * <p>
+ * Callers queue an encoded snapshot or journal records and return immediately. A single daemon thread
+ * takes everything queued so far and writes it in one go: the latest snapshot (older ones and the records
+ * they already contain are dropped) atomically via a temporary file and rename, then the remaining records
+ * as one append. When the thread is woken depends on the {@link Durability} mode.
+ * <p>
+ * Before a new snapshot is moved in, the journal it folds in is renamed aside, and only deleted afterwards. A
+ * crash in between therefore never leaves records next to a snapshot that already holds them: {@link #recover()}
+ * either finishes the move, or finds it done and drops the retired journal.
+ * <p>
+ * A write that fails is reported once, by the next call that queues or flushes, but its snapshot and records
+ * stay queued and are retried after {@value #RETRY_MS} ms, so later records never land in a journal that is
+ * missing earlier ones.
+ * Every write is counted and emitted as a {@code friday.StorageWrite} Flight Recorder event.
+ */
+class Persister {
+    /** Delay before a failed write is tried again. */
+    static final long RETRY_MS = 500;
+
+    private final Path file;
+    private final Path journal;
+    private final Path tmp;
+    private final Path retired;
+    private final Durability durability;
+    private final long intervalMs;
+
+    private byte[] pendingSnapshot;
+    private final StringBuilder pendingRecords = new StringBuilder();
+    private long requested;
+    private long written;
+    private long nextDue;
+    private long retryAt;
+    private boolean flushWanted;
+    private boolean closed;
+    private IOException failure;
+    private Thread worker;
+    private Thread shutdownHook;
+    private volatile long bytesWritten;
+    private volatile long writes;
+
+    Persister(Path file, Path journal, Durability durability, long intervalMs) {
+        this.file = file;
+        this.journal = journal;
+        this.tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        this.retired = journal.resolveSibling(journal.getFileName() + ".old");
+        this.durability = durability;
+        this.intervalMs = intervalMs;
+    }
+
+    /**
+     * Queues a full snapshot; it supersedes every snapshot and record queued before it.
+     * @throws IOException if an earlier write failed; {@code bytes} is queued all the same
+     */
+    synchronized void snapshot(byte[] bytes) throws IOException {
+        enqueue();
+        pendingSnapshot = bytes;
+        pendingRecords.setLength(0);
+        throwIfFailed();
+    }
+
+    /**
+     * Queues one journal record (without line terminator).
+     * @throws IOException if an earlier write failed; {@code record} is queued all the same
+     */
+    synchronized void record(String record) throws IOException {
+        enqueue();
+        pendingRecords.append(record).append('\n');
+        throwIfFailed();
+    }
+
+    /** Blocks until everything queued so far is on disk, or until a write fails. */
+    synchronized void flush() throws IOException {
+        long target = requested;
+        if (target == written) {
+            throwIfFailed();
+            return;
+        }
+        flushWanted = true;
+        notifyAll();
+        boolean interrupted = false;
+        while (written < target && failure == null && worker != null && worker.isAlive()) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        throwIfFailed();
+    }
+
+    /**
+     * Completes a snapshot write that a crash interrupted. The journal is only retired once the temporary
+     * file holds the whole snapshot, so that file is moved in if it is still there; either way the retired
+     * journal's records are in the snapshot. Call it before reading the snapshot.
+     */
+    synchronized void recover() throws IOException {
+        if (Files.exists(retired)) {
+            if (Files.exists(tmp)) {
+                moveIntoPlace();
+            }
+            Files.delete(retired);
+        }
+    }
+
+    /** Returns the number of bytes written to the snapshot and journal so far. */
+    long bytesWritten() {
+        return bytesWritten;
+    }
+
+    /** Returns the number of times the writer thread went to disk. */
+    long writes() {
+        return writes;
+    }
+
+    /** Flushes and stops the writer thread. Later writes start a new one. */
+    void close() throws IOException {
+        Thread w;
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+            w = worker;
+        }
+        if (w != null) {
+            try {
+                w.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            worker = null;
+            closed = false;
+            if (shutdownHook != null && Thread.currentThread() != shutdownHook) {
+                try {
+                    Runtime.getRuntime().removeShutdownHook(shutdownHook);
+                } catch (IllegalStateException ignored) {
+                    // already shutting down
+                }
+            }
+            shutdownHook = null;
+            throwIfFailed();
+        }
+    }
+
+    private void enqueue() {
+        if (requested == written) {
+            nextDue = System.currentTimeMillis() + intervalMs;
+        }
+        requested++;
+        if (worker == null) {
+            worker = new Thread(this::run, "friday-persister");
+            worker.setDaemon(true);
+            worker.start();
+            shutdownHook = new Thread(this::closeQuietly, "friday-persister-flush");
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+        }
+        notifyAll();
+    }
+
+    private void throwIfFailed() throws IOException {
+        if (failure != null) {
+            IOException e = failure;
+            failure = null;
+            throw new IOException("Saving tasks failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    private void run() {
+        while (true) {
+            byte[] snapshot;
+            String records;
+            long upTo;
+            synchronized (this) {
+                while (!due()) {
+                    if (closed && requested == written) {
+                        return;
+                    }
+                    long wait = 0;
+                    if (requested > written) {
+                        long now = System.currentTimeMillis();
+                        if (retryAt > now) {
+                            wait = retryAt - now;
+                        } else if (durability == Durability.INTERVAL) {
+                            wait = Math.max(1, nextDue - now);
+                        }
+                    }
+                    try {
+                        wait(wait);
+                    } catch (InterruptedException e) {
+                        closed = true;
+                    }
+                }
+                snapshot = pendingSnapshot;
+                records = pendingRecords.toString();
+                upTo = requested;
+                pendingSnapshot = null;
+                pendingRecords.setLength(0);
+                flushWanted = false;
+            }
+            IOException error = null;
+            try {
+                write(snapshot, records);
+            } catch (IOException e) {
+                error = e;
+            }
+            synchronized (this) {
+                nextDue = System.currentTimeMillis() + intervalMs;
+                notifyAll();
+                if (error == null) {
+                    written = upTo;
+                    continue;
+                }
+                failure = error;
+                if (pendingSnapshot == null) {      // put the batch back unless a newer snapshot supersedes it
+                    pendingSnapshot = snapshot;
+                    pendingRecords.insert(0, records);
+                }
+                if (closed) {
+                    return;                         // give up; close() reports the failure
+                }
+                retryAt = System.currentTimeMillis() + RETRY_MS;
+            }
+        }
+    }
+
+    /** Returns whether queued work should be written now. Caller holds the lock. */
+    private boolean due() {
+        if (requested == written || System.currentTimeMillis() < retryAt) {
+            return false;
+        }
+        switch (durability) {
+        case EVERY_COMMAND: return true;
+        case INTERVAL: return flushWanted || closed || System.currentTimeMillis() >= nextDue;
+        default: return flushWanted || closed;
+        }
+    }
+
+    private void write(byte[] snapshot, String records) throws IOException {
+        WriteEvent event = new WriteEvent();
+        event.begin();
+        if (snapshot != null) {
+            Files.write(tmp, snapshot);
+            if (Files.exists(journal)) {
+                Files.move(journal, retired, StandardCopyOption.REPLACE_EXISTING);
+            }
+            moveIntoPlace();
+            Files.deleteIfExists(retired);
+        }
+        byte[] appended = records.getBytes(StandardCharsets.UTF_8);
+        if (appended.length > 0) {
+            append(appended);
+        }
+        long bytes = (snapshot == null ? 0 : snapshot.length) + appended.length;
+        bytesWritten += bytes;          // only the writer thread updates the counters
+        writes++;
+        event.snapshotBytes = snapshot == null ? 0 : snapshot.length;
+        event.journalBytes = appended.length;
+        event.commit();
+    }
+
+    private void moveIntoPlace() throws IOException {
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /** Appends {@code bytes} to the journal, cutting off whatever part of them a failed append left behind. */
+    private void append(byte[] bytes) throws IOException {
+        try (FileChannel ch = FileChannel.open(journal, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long end = ch.size();
+            try {
+                ByteBuffer buf = ByteBuffer.wrap(bytes);
+                while (buf.hasRemaining()) {
+                    ch.write(buf, end + buf.position());
+                }
+            } catch (IOException e) {
+                try {
+                    ch.truncate(end);
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+        }
+    }
+
+    @Name("friday.StorageWrite")
+    @Label("Storage Write")
+    @Category("Friday")
+    static class WriteEvent extends jdk.jfr.Event {
+        @Label("Snapshot Bytes")
+        @DataAmount
+        long snapshotBytes;
+
+        @Label("Journal Bytes")
+        @DataAmount
+        long journalBytes;
+    }
+}
@@ -6,48 +6,390 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
 
 /**
  * Syncs the list of tasks saved previously in
  * .data/tasks.txt and tasks newly created.
+ * <p>
+ * Mutations are appended to a journal next to the snapshot (e.g. {@code tasks.txt.journal}) so that
+ * each one costs the same regardless of list size. Once enough records pile up, the journal is folded
+ * back into the snapshot by a full {@link #save(List)}.
+ * <p>
+ * A snapshot file name ending in {@value BinaryStore#SUFFIX} is kept in the {@link BinaryStore} format
+ * instead of text; the journal stays text either way.
+ * <p>
+ * Snapshots and records are encoded on the calling thread but written behind it by a {@link Persister},
+ * so a command does not wait for the disk. {@link #flush()} waits for pending writes and {@link #close()}
+ * also stops the writer.
+ * <p>
+ * Load time, the time callers spend encoding and queueing writes, and the bytes that reach the disk are
+ * counted for the {@code stats} command; loads are also emitted as {@code friday.StorageLoad} Flight Recorder
+ * events.
  */
 public class Storage {
+    /** Number of journal records after which the journal is compacted into the snapshot. */
+    public static final int DEFAULT_COMPACT_EVERY = 1024;
+
+    private static final String ADD = "ADD";
+    private static final String INSERT = "INS";
+    private static final String DELETE = "DEL";
+    private static final String MARK = "MARK";
+    private static final String UNMARK = "UNMARK";
+
     private final Path file;
+    private final Path journal;
+    private final int compactEvery;
+    private final boolean binary;
+    private final Persister persister;
+    private int journalled;
+    private int skipped;
+    private boolean batching;
+    private boolean dirty;
+    private volatile long loadNanos;
+    private volatile long persistNanos;     // read by concurrent queries for stats
+
+    public Storage(Path file) { this(file, DEFAULT_COMPACT_EVERY); }
 
-    public Storage(Path file) { this.file = file; }
+    public Storage(Path file, int compactEvery) { this(file, compactEvery, Durability.EVERY_COMMAND, 0); }
 
+    /**
+     * @param file snapshot file
+     * @param compactEvery journal records kept before compaction; 0 or less disables the journal so that
+     *                     every mutation rewrites the snapshot
+     * @param durability when queued writes reach the disk
+     * @param intervalMs write interval for {@link Durability#INTERVAL}
+     */
+    public Storage(Path file, int compactEvery, Durability durability, long intervalMs) {
+        this.file = file;
+        this.journal = file.resolveSibling(file.getFileName() + ".journal");
+        this.compactEvery = compactEvery;
+        this.binary = file.getFileName().toString().endsWith(BinaryStore.SUFFIX);
+        this.persister = new Persister(file, journal, durability, intervalMs);
+    }
+
+    /**
+     * Loads the snapshot and replays any journal records written after it.
+     * Text snapshots are parsed in parallel; see {@link #skippedLines()} for lines that were rejected.
+     */
     public List<Task> load() throws IOException {
+        LoadEvent event = new LoadEvent();
+        event.begin();
+        long start = System.nanoTime();
+        persister.flush();
+        skipped = 0;
         ensureParentDir();
-        if (!Files.exists(file)) {
+        persister.recover();
+        if (!binary && !Files.exists(file)) {
             Files.createFile(file);
-            return new ArrayList<>();
-        }
-        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
-        List<Task> result = new ArrayList<>();
-        for (String s : lines) {
-            if (s.isBlank()) {
-                continue;
-            }
-            try {
-                result.add(Task.fromStorage(s));
-            } catch (IllegalArgumentException ignored) {}
         }
+        List<Task> result = binary ? loadBinary() : loadText();
+        long lastId = Task.assignIds(result, 0);
+        journalled = Files.exists(journal) ? replay(result, lastId) : 0;
+        loadNanos = System.nanoTime() - start;
+        event.tasks = result.size();
+        event.skipped = skipped;
+        event.commit();
         return result;
     }
 
+    private List<Task> loadText() throws IOException {
+        ParallelLoader.Result r = ParallelLoader.load(file);
+        skipped += r.skipped;
+        return r.tasks;
+    }
+
+    private List<Task> loadBinary() throws IOException {
+        if (!Files.exists(file) || Files.size(file) == 0) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(BinaryStore.open(file));
+    }
+
+    /** Returns how many snapshot lines and journal records the last {@link #load()} could not apply. */
+    public int skippedLines() {
+        return skipped;
+    }
+
     /**
      * Saves the tasklist at the end of a program run into an external txt file, so that the tasklist
      * is not lost when the program ends, and can be loaded again when the program is started up again.
+     * Any pending journal is discarded since the snapshot now contains it. During a batch the write is
+     * deferred to {@link #endBatch(List)}.
      * @param tasks Most updated taskList
      * @throws IOException Throws exception
      */
     public void save(List<Task> tasks) throws IOException {
+        if (batching) {
+            dirty = true;
+            return;
+        }
+        writeSnapshot(tasks);
+    }
+
+    /**
+     * Starts deferring all writes: mutations and saves only mark the storage dirty until
+     * {@link #endBatch(List)} persists once, or {@link #abortBatch()} drops them.
+     */
+    public void beginBatch() {
+        batching = true;
+        dirty = false;
+    }
+
+    /** Writes a snapshot of {@code tasks} now if anything changed since the batch began or last checkpoint. */
+    public void checkpoint(List<Task> tasks) throws IOException {
+        if (dirty) {
+            writeSnapshot(tasks);
+            dirty = false;
+        }
+    }
+
+    /** Persists the batch with a single snapshot write and resumes normal journalling. */
+    public void endBatch(List<Task> tasks) throws IOException {
+        try {
+            checkpoint(tasks);
+        } finally {
+            batching = false;
+        }
+    }
+
+    /** Drops deferred changes; the files keep whatever was last written. */
+    public void abortBatch() {
+        batching = false;
+        dirty = false;
+    }
+
+    /** Returns the size of the snapshot and journal on disk, in bytes; 0 for files that do not exist yet. */
+    public long sizeOnDisk() throws IOException {
+        long size = 0;
+        for (Path p : new Path[] {file, journal}) {
+            if (Files.exists(p)) {
+                size += Files.size(p);
+            }
+        }
+        return size;
+    }
+
+    /** Returns how long the last {@link #load()} took, in nanoseconds. */
+    public long loadNanos() {
+        return loadNanos;
+    }
+
+    /** Returns the total time callers have spent encoding and queueing writes, in nanoseconds. */
+    public long persistNanos() {
+        return persistNanos;
+    }
+
+    /** Returns the number of snapshot and journal bytes written to disk so far. */
+    public long bytesWritten() {
+        return persister.bytesWritten();
+    }
+
+    /** Returns the number of times queued writes went to disk; each may cover several mutations. */
+    public long diskWrites() {
+        return persister.writes();
+    }
+
+    /** Waits until every queued snapshot and journal record has been written. */
+    public void flush() throws IOException {
+        persister.flush();
+    }
+
+    /** Flushes and stops the background writer; e.g. on exit. */
+    public void close() throws IOException {
+        persister.close();
+    }
+
+    private void writeSnapshot(List<Task> tasks) throws IOException {
+        long start = System.nanoTime();
+        ensureParentDir();
+        if (binary) {
+            persister.snapshot(BinaryStore.encode(tasks));
+        } else {
+            StringBuilder sb = new StringBuilder(tasks.size() * 32);
+            for (Task t : tasks) sb.append(t.toStorage()).append(System.lineSeparator());
+            persister.snapshot(sb.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        journalled = 0;
+        persistNanos += System.nanoTime() - start;
+    }
+
+    /** Records that {@code t} was appended to the end of {@code tasks}. */
+    public void appendAdd(Task t, List<Task> tasks) throws IOException {
+        append(ADD + " | " + t.toStorage(), tasks);
+    }
+
+    /** Records that {@code t} was removed from {@code tasks}. */
+    public void appendDelete(Task t, List<Task> tasks) throws IOException {
+        append(DELETE + " | #" + t.id(), tasks);
+    }
+
+    /** Records that {@code t} was marked or unmarked. */
+    public void appendMark(Task t, boolean done, List<Task> tasks) throws IOException {
+        append((done ? MARK : UNMARK) + " | #" + t.id(), tasks);
+    }
+
+    /** Records that every task in {@code removed} was removed from {@code tasks}, as one write. */
+    public void appendDeletes(Collection<Task> removed, List<Task> tasks) throws IOException {
+        appendAll(DELETE, removed, tasks);
+    }
+
+    /** Records that every task in {@code changed} was marked or unmarked, as one write. */
+    public void appendMarks(Collection<Task> changed, boolean done, List<Task> tasks) throws IOException {
+        appendAll(done ? MARK : UNMARK, changed, tasks);
+    }
+
+    /**
+     * Records that each task in {@code inserted} was put back into {@code tasks} just before the matching task
+     * in {@code anchors}, or at the end where that is null, as one write. The records are written last first,
+     * so every anchor is in the list by the time its record is replayed.
+     */
+    public void appendInserts(List<Task> inserted, List<Task> anchors, List<Task> tasks) throws IOException {
+        if (journalled + inserted.size() >= compactEvery) {
+            save(tasks);
+            return;
+        }
+        StringBuilder records = new StringBuilder(inserted.size() * 64);
+        for (int i = inserted.size() - 1; i >= 0; i--) {
+            if (records.length() > 0) {
+                records.append('\n');
+            }
+            Task anchor = anchors.get(i);
+            if (anchor == null) {
+                records.append(ADD).append(" | ");
+            } else {
+                records.append(INSERT).append(" | #").append(anchor.id()).append(" | ");
+            }
+            records.append(inserted.get(i).toStorage());
+        }
+        append(records.toString(), inserted.size(), tasks);
+    }
+
+    private void appendAll(String op, Collection<Task> some, List<Task> tasks) throws IOException {
+        if (some.isEmpty()) {
+            return;
+        }
+        if (journalled + some.size() >= compactEvery) {
+            save(tasks);                        // a snapshot is due anyway, so skip the records
+            return;
+        }
+        StringBuilder records = new StringBuilder(some.size() * 16);
+        for (Task t : some) {
+            if (records.length() > 0) {
+                records.append('\n');
+            }
+            records.append(op).append(" | #").append(t.id());
+        }
+        append(records.toString(), some.size(), tasks);
+    }
+
+    private void append(String record, List<Task> tasks) throws IOException {
+        append(record, 1, tasks);
+    }
+
+    /** Queues {@code records}, which holds {@code count} lines, or a snapshot if the journal is full or off. */
+    private void append(String records, int count, List<Task> tasks) throws IOException {
+        if (batching) {
+            dirty = true;
+            return;
+        }
+        if (compactEvery <= 0) {
+            save(tasks);
+            return;
+        }
+        long start = System.nanoTime();
         ensureParentDir();
-        List<String> lines = new ArrayList<>(tasks.size());
-        for (Task t : tasks) lines.add(t.toStorage());
-        Files.write(file, lines, StandardCharsets.UTF_8,
-                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        persister.record(records);
+        persistNanos += System.nanoTime() - start;
+        journalled += count;
+        if (journalled >= compactEvery) {
+            save(tasks);
+        }
+    }
+
+    /**
+     * Applies every journal record on top of {@code tasks}. Records address tasks by {@code #id}, and an undone
+     * removal is an {@code INS} record placing the task before another by id. Records written before tasks had
+     * ids hold a zero-based position instead and are still understood. Records that cannot be applied (e.g. a
+     * torn last line) are skipped. The journal always belongs to the snapshot on disk, see {@link Persister}.
+     * @param lastId largest id in {@code tasks}; added tasks without an id continue from it
+     * @return number of records read
+     */
+    private int replay(List<Task> tasks, long lastId) throws IOException {
+        List<String> records = Files.readAllLines(journal, StandardCharsets.UTF_8);
+        Map<Long, Task> byId = new HashMap<>();
+        for (Task t : tasks) {
+            byId.put(t.id(), t);
+        }
+        Set<Task> deleted = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String r : records) {
+            int bar = r.indexOf('|');
+            if (bar < 0) {
+                skipped++;
+                continue;
+            }
+            String op = r.substring(0, bar).trim();
+            String arg = r.substring(bar + 1).trim();
+            try {
+                if (op.equals(ADD)) {
+                    Task t = Task.fromStorage(arg);
+                    lastId = Task.assignIds(List.of(t), lastId);
+                    tasks.add(t);
+                    byId.put(t.id(), t);
+                    continue;
+                }
+                if (op.equals(INSERT)) {                // "#<id of the task after it> | <task>"
+                    int next = arg.indexOf('|');
+                    Task anchor = byId.get(Task.parseId(arg.substring(0, next).trim()));
+                    Task t = Task.fromStorage(arg.substring(next + 1).trim());
+                    lastId = Task.assignIds(List.of(t), lastId);
+                    purge(tasks, deleted);
+                    tasks.add(anchor == null ? tasks.size() : tasks.indexOf(anchor), t);
+                    byId.put(t.id(), t);
+                    continue;
+                }
+                long id = Task.parseId(arg);
+                Task t;
+                if (id != 0) {
+                    t = byId.get(id);
+                } else {
+                    purge(tasks, deleted);              // positions count only tasks still in the list
+                    t = tasks.get(Integer.parseInt(arg));
+                }
+                if (t == null) {
+                    skipped++;
+                    continue;
+                }
+                switch (op) {
+                case DELETE: deleted.add(t); byId.remove(t.id()); break;
+                case MARK: t.setDone(true); break;
+                case UNMARK: t.setDone(false); break;
+                default: skipped++; break;
+                }
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                skipped++;
+            }
+        }
+        purge(tasks, deleted);
+        return records.size();
+    }
+
+    /** Removes every task in {@code deleted} from {@code tasks} in one pass. */
+    private static void purge(List<Task> tasks, Set<Task> deleted) {
+        if (!deleted.isEmpty()) {
+            tasks.removeIf(deleted::contains);
+            deleted.clear();
+        }
     }
 
     private void ensureParentDir() throws IOException {
@@ -56,5 +398,15 @@ public class Storage {
             Files.createDirectories(parent);
         }
     }
-}
 
+    @Name("friday.StorageLoad")
+    @Label("Storage Load")
+    @Category("Friday")
+    static class LoadEvent extends jdk.jfr.Event {
+        @Label("Tasks")
+        int tasks;
+
+        @Label("Skipped Lines")
+        int skipped;
+    }
+}
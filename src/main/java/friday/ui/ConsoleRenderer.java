@@ -0,0 +1,39 @@
+package friday.ui;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+/**
+ * Draws a {@link Response} on the console, sandwiched between two lines. Rows are streamed through
+ * a buffer, so a long listing is written in large chunks without first being assembled in memory.
+ */
+public class ConsoleRenderer {
+    private static final String LINE = "____________________________________________________________";
+    private static final int BUFFER = 1 << 16;
+
+    private final Writer out;
+
+    public ConsoleRenderer(PrintStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, Charset.defaultCharset()), BUFFER);
+    }
+
+    /** Draws {@code r}; replies rendered from other threads, such as reminders, are never interleaved. */
+    public synchronized void render(Response r) {
+        String nl = System.lineSeparator();
+        try {
+            out.write(LINE);
+            out.write(nl);
+            r.writeTo(out, nl);
+            out.write(LINE);
+            out.write(nl);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
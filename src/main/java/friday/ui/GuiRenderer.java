@@ -0,0 +1,21 @@
+package friday.ui;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Turns a {@link Response} into the text of a chat bubble.
+ */
+public class GuiRenderer {
+    private GuiRenderer() {}
+
+    public static String render(Response r) {
+        StringBuilder sb = new StringBuilder(r.lineCount() * 48);
+        try {
+            r.writeTo(sb, "\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);      // StringBuilder does not throw
+        }
+        return sb.toString().trim();
+    }
+}
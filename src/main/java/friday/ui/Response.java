@@ -0,0 +1,115 @@
+package friday.ui;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import friday.model.Task;
+
+/**
+ * Friday's reply to one command: the message lines to show, the tasks the command touched,
+ * and whether the user asked to exit. Built by {@link Ui} and drawn by a renderer such as
+ * {@link ConsoleRenderer} or {@link GuiRenderer}, so producing a reply touches no shared state.
+ * <p>
+ * Listed rows show the task number, the task, and its {@code #id}.
+ * A listing keeps its rows as a view of the tasks and numbers them only while being written,
+ * so a page of a large list never copies its display strings into an intermediate array.
+ */
+public class Response {
+    private final List<String> head;
+    private final List<Task> rows;
+    private final int firstNumber;
+    private final int[] numbers;
+    private final List<String> tail;
+    private final List<Task> tasks;
+    private final boolean exit;
+
+    Response(List<String> lines, List<Task> tasks, boolean exit) {
+        this(lines, List.of(), 1, null, List.of(), tasks, exit);
+    }
+
+    /** Creates a listing of {@code rows}, numbered from {@code firstNumber}, between {@code head} and {@code tail}. */
+    Response(List<String> head, List<Task> rows, int firstNumber, List<String> tail) {
+        this(head, rows, firstNumber, null, tail, rows, false);
+    }
+
+    /** Creates a listing of {@code rows} in which row {@code i} is numbered {@code numbers[i]}. */
+    Response(List<String> head, List<Task> rows, int[] numbers, List<String> tail) {
+        this(head, rows, 0, numbers, tail, rows, false);
+    }
+
+    private Response(List<String> head, List<Task> rows, int firstNumber, int[] numbers, List<String> tail,
+            List<Task> tasks, boolean exit) {
+        this.head = head;
+        this.rows = rows;
+        this.firstNumber = firstNumber;
+        this.numbers = numbers;
+        this.tail = tail;
+        this.tasks = Collections.unmodifiableList(tasks);
+        this.exit = exit;
+    }
+
+    /**
+     * Returns the message lines, each starting with the indentation used on the console.
+     * This builds every row; renderers use {@link #writeTo(Appendable, String)} instead.
+     */
+    public List<String> lines() {
+        List<String> lines = new ArrayList<>(lineCount());
+        lines.addAll(head);
+        for (int i = 0; i < rows.size(); i++) {
+            Task t = rows.get(i);
+            lines.add(" " + number(i) + "." + t.display() + (t.id() == 0 ? "" : "  #" + t.id()));
+        }
+        lines.addAll(tail);
+        return lines;
+    }
+
+    /** Returns the number of lines this reply shows. */
+    public int lineCount() {
+        return head.size() + rows.size() + tail.size();
+    }
+
+    /** Writes every line to {@code out}, each followed by {@code newline}, one piece at a time. */
+    public void writeTo(Appendable out, String newline) throws IOException {
+        for (String l : head) {
+            out.append(l).append(newline);
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            Task t = rows.get(i);
+            out.append(' ').append(Integer.toString(number(i))).append('.').append(t.display());
+            if (t.id() != 0) {
+                out.append("  #").append(Long.toString(t.id()));
+            }
+            out.append(newline);
+        }
+        for (String l : tail) {
+            out.append(l).append(newline);
+        }
+    }
+
+    private int number(int row) {
+        return numbers == null ? firstNumber + row : numbers[row];
+    }
+
+    /** Returns the tasks this command added, removed, updated or listed. */
+    public List<Task> tasks() {
+        return tasks;
+    }
+
+    /** Returns true if the user asked to exit. */
+    public boolean isExit() {
+        return exit;
+    }
+
+    /** Joins several replies into one, e.g. the output of a batch followed by its summary. */
+    public static Response combine(List<Response> parts) {
+        List<String> lines = new ArrayList<>();
+        List<Task> tasks = new ArrayList<>();
+        for (Response r : parts) {
+            lines.addAll(r.lines());
+            tasks.addAll(r.tasks);
+        }
+        return new Response(lines, tasks, false);
+    }
+}
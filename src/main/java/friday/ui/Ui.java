@@ -1,73 +1,200 @@
 package friday.ui;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import friday.model.Task;
 
 /**
- * All printing and reading functions are handled by friday.app.Ui class.
+ * Composes every message friday.app.Friday shows. Each method returns a {@link Response}
+ * instead of printing, so that the same reply can be rendered on the console or in the GUI.
  */
 public class Ui {
-    private static final String LINE = "____________________________________________________________";
+    /** Number of rows shown when a listing does not ask for a particular page. */
+    public static final int PAGE_SIZE = 40;
 
-    public void greet() {
-        box(" Hello! I'm Friday", " What can I do for you?");
+    public Response greet() {
+        return box(" Hello! I'm Friday", " What can I do for you?");
     }
-    public void bye()   {
-        box(" Bye. Hope to see you again soon!");
+    public Response bye()   {
+        return exit(" Bye. Hope to see you again soon!");
     }
 
-    public void error(String msg) { box(" " + msg); }
+    public Response error(String msg) { return box(" " + msg); }
 
-    /** Returns a friday.model.TaskList which contains all the Tasks created. */
-    public void showList(List<Task> tasks) {
-        if (tasks.isEmpty()) {
-            box(" (no items yet)");
-            return;
-        }
-        String[] lines = new String[tasks.size() + 1];
-        lines[0] = " Here are the tasks in your list:";
-        for (int i = 0; i < tasks.size(); i++) {
-            lines[i + 1] = " " + (i + 1) + "." + tasks.get(i).display();
+    /** Returns the first page of a friday.model.TaskList which contains all the Tasks created. */
+    public Response showList(List<Task> tasks) {
+        return showList(tasks, 0, Math.min(tasks.size(), PAGE_SIZE));
+    }
+
+    /** Returns the tasks at zero-based positions {@code [from, to)}, numbered by their place in the whole list. */
+    public Response showList(List<Task> tasks, int from, int to) {
+        return showPage(new ArrayList<>(tasks.subList(from, to)), from, tasks.size());
+    }
+
+    /**
+     * Returns one page of the task list.
+     * @param page tasks at zero-based positions {@code [from, from + page.size())}
+     * @param total number of tasks in the whole list
+     */
+    public Response showPage(List<Task> page, int from, int total) {
+        if (total == 0) {
+            return box(" (no items yet)");
         }
-        box(lines);
+        return new Response(List.of(" Here are the tasks in your list:"), page, from + 1, footer(from, page.size(),
+                total, " Type list <page> [size] or list --from <n> --to <m> to see others."));
     }
 
     /** Acknowledges that a friday.model.Task has been added to friday.model.TaskList. */
-    public void added(Task t, int size) {
-        box(" Got it. I've added this task:",
+    public Response added(Task t, int size) {
+        return box(List.of(t), " Got it. I've added this task as #" + t.id() + ":",
                 "   " + t.display(), " Now you have " + size + " tasks in the list.");
     }
 
+    /** Acknowledges a task given while the list is still loading; it is added once the list is in. */
+    public Response held(Task t) {
+        return box(List.of(t), " Got it. Your list is still loading, so I'll add this task right after:",
+                "   " + t.display());
+    }
+
     /** Acknowledges that a friday.model.Task has been removed from friday.model.TaskList, based on friday.model.Task number. */
-    public void removed(Task t, int size) {
-        box(" Noted. I've removed this task:",
+    public Response removed(Task t, int size) {
+        return box(List.of(t), " Noted. I've removed this task:",
                 "   " + t.display(), " Now you have " + size + " tasks in the list.");
     }
 
     /** Acknowledges that a friday.model.Task status has been updated in friday.model.TaskList. */
-    public void toggled(Task t, boolean marked) {
-        box(marked ? " Nice! I've marked this task as done:" :
+    public Response toggled(Task t, boolean marked) {
+        return box(List.of(t), marked ? " Nice! I've marked this task as done:" :
                         " OK, I've marked this task as not done yet:", "   " + t.display());
     }
 
-    /** Formats friday.app.Friday's response by sandwiching her response in between two lines. */
-    private void box(String... lines) {
-        System.out.println(LINE);
-        for (String l : lines) System.out.println(l);
-        System.out.println(LINE);
+    /** Summarises a bulk delete of {@code removed} tasks. */
+    public Response removedAll(int removed, int size) {
+        if (removed == 0) {
+            return box(" No task matches that, so nothing was removed.");
+        }
+        return box(" Noted. I've removed " + plural(removed) + ".", " Now you have " + size + " tasks in the list.");
+    }
+
+    /** Summarises a bulk mark or unmark that selected {@code selected} tasks and changed {@code changed} of them. */
+    public Response toggledAll(int selected, int changed, boolean marked) {
+        if (selected == 0) {
+            return box(" No task matches that, so nothing was changed.");
+        }
+        String line = marked ? " Nice! I've marked " + plural(changed) + " as done."
+                : " OK, I've marked " + plural(changed) + " as not done yet.";
+        int unchanged = selected - changed;
+        return unchanged == 0 ? box(line) : box(line, " " + plural(unchanged) + (unchanged == 1 ? " was" : " were")
+                + " already " + (marked ? "done." : "not done."));
     }
 
-    public void showMatches(List<Task> matches) {
+    /**
+     * Acknowledges that the latest {@code change} (e.g. {@code delete}) to {@code touched} was undone, or
+     * redone; a single task is shown.
+     */
+    public Response undone(String change, List<Task> touched, int size, boolean redo) {
+        String head = (redo ? " Redone: your " : " Undone: your ") + change;
+        String footer = " Now you have " + size + " tasks in the list.";
+        if (touched.size() == 1) {
+            return box(touched, head + " of this task:", "   " + touched.get(0).display(), footer);
+        }
+        return box(head + " of " + plural(touched.size()) + ".", footer);
+    }
+
+    public Response nothingToUndo(boolean redo) {
+        return box(redo ? " There is nothing to redo." : " There is nothing to undo.");
+    }
+
+    /** Appends a summary to the replies of every command in a batch. */
+    public Response batchDone(List<Response> replies, int commands) {
+        List<Response> parts = new ArrayList<>(replies);
+        parts.add(box(" Ran " + commands + " commands as one batch and saved your list."));
+        return Response.combine(parts);
+    }
+
+    public Response showMatches(List<Task> matches) {
+        return showMatches(matches, 0, Math.min(matches.size(), PAGE_SIZE));
+    }
+
+    /** Returns the matches at zero-based positions {@code [from, to)}. */
+    public Response showMatches(List<Task> matches, int from, int to) {
         if (matches.isEmpty()) {
-            box(" You have no task containing this keyword");
-            return;
+            return box(" You have no task containing this keyword");
+        }
+        return page(" Here are the tasks in your list containing this keyword:", matches, from, to,
+                " Add --from <n> --to <m> to the search to see others.");
+    }
+
+    /**
+     * Shows the tasks at zero-based positions {@code [from, from + page.size())} of a sorted view,
+     * each under its unchanged task number.
+     * @param by name of the order, e.g. {@code time}
+     * @param total number of tasks in the whole view
+     */
+    public Response showSorted(String by, List<Task> page, int[] numbers, int from, int total) {
+        if (total == 0) {
+            return box(" (no items yet)");
         }
-        String[] lines = new String[matches.size() + 1];
-        lines[0] = " Here are the tasks in your list containing this keyword:";
-        for (int i = 0; i< matches.size(); i++) {
-            lines[i + 1] = " " + (i + 1) + "." + matches.get(i).display();
+        return new Response(List.of(" Here are your tasks by " + by + " (task numbers are unchanged):"),
+                page, numbers, footer(from, page.size(), total,
+                        " Type sort by " + by + " <page> [size] to see others."));
+    }
+
+    /** Reminds the user of deadlines and events coming up, each under its task number. */
+    public Response remind(List<Task> due, int[] numbers) {
+        return new Response(List.of(" Heads up! These are coming up soon:"), due, numbers, List.of());
+    }
+
+    /** Announces that the task list is being served at {@code url}. */
+    public Response serving(String url) {
+        return box(" Serving your tasks at " + url, " Send commands as POST bodies; press Ctrl+C to stop.");
+    }
+
+    /** Shows the counters and latency table of the {@code stats} command. */
+    public Response showStats(List<String> lines) {
+        List<String> all = new ArrayList<>(lines.size() + 1);
+        all.add(" Here is how Friday has been doing:");
+        all.addAll(lines);
+        return new Response(all, List.of(), false);
+    }
+
+    /** Shows the deadlines and events returned by a date query, earliest first. */
+    public Response showSchedule(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return box(" You have nothing scheduled for that time");
         }
-        box(lines);
+        return page(" Here are the tasks scheduled for that time:", tasks, 0, tasks.size(), null);
+    }
+
+    /** Lists {@code tasks[from, to)}, with a footer giving the position and {@code hint} if that is not all. */
+    private Response page(String header, List<Task> tasks, int from, int to, String hint) {
+        // copy the references only: the caller may change the list before the reply is rendered
+        return new Response(List.of(header), new ArrayList<>(tasks.subList(from, to)), from + 1,
+                footer(from, to - from, tasks.size(), hint));
+    }
+
+    /** Returns the position line and {@code hint} if {@code shown} rows from {@code from} are not all {@code total}. */
+    private static List<String> footer(int from, int shown, int total, String hint) {
+        if (from == 0 && shown == total) {
+            return List.of();
+        }
+        return List.of(" Showing " + (from + 1) + "-" + (from + shown) + " of " + total + ".", hint);
+    }
+
+    private static String plural(int n) {
+        return n == 1 ? "1 task" : n + " tasks";
+    }
+
+    private Response box(String... lines) {
+        return box(List.of(), lines);
+    }
+
+    private Response box(List<Task> tasks, String... lines) {
+        return new Response(List.of(lines), tasks, false);
+    }
+
+    private Response exit(String... lines) {
+        return new Response(List.of(lines), List.of(), true);
     }
-}
\ No newline at end of file
+}
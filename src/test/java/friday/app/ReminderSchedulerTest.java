@@ -0,0 +1,93 @@
+package friday.app;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import friday.model.CompactTaskList;
+import friday.model.Deadline;
+import friday.model.Event;
+import friday.model.TaskList;
+import friday.model.TaskStore;
+import friday.model.ToDo;
+import friday.storage.Storage;
+import friday.ui.Response;
+import friday.ui.Ui;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ReminderSchedulerTest {
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @TempDir
+    Path tmpDir;
+
+    /** A clock that only moves when told to. */
+    private static class ManualClock extends Clock {
+        private Instant now = NOON.toInstant(ZoneOffset.UTC);
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    @Test
+    void reminders_fireOncePerLeadTimeAndFollowChanges() throws Exception {
+        fireOncePerLeadTimeAndFollowChanges(new TaskList(), tmpDir.resolve("tasks.txt"));
+        fireOncePerLeadTimeAndFollowChanges(new CompactTaskList(), tmpDir.resolve("columns.txt"));
+    }
+
+    private static void fireOncePerLeadTimeAndFollowChanges(TaskStore tasks, Path file) throws Exception {
+        Storage storage = new Storage(file);
+        Ui ui = new Ui();
+        ManualClock clock = new ManualClock();
+        ReminderScheduler reminders = new ReminderScheduler(tasks, ui, clock);
+        tasks.remindBefore(ReminderScheduler.parseLeads("1d,1h"));
+
+        tasks.add(new ToDo("read book"), ui, storage);
+        tasks.add(new Deadline("return book", NOON.plusHours(3)), ui, storage);
+        tasks.add(new Event("book fair", NOON.plusDays(2), NOON.plusDays(3)), ui, storage);
+        tasks.add(new Deadline("pay fine", NOON.plusHours(5)), ui, storage);
+        assertEquals(List.of(" Heads up! These are coming up soon:",
+                " 2.[D][ ] return book (by: Mar 1 2024, 3:00PM)  #2",
+                " 4.[D][ ] pay fine (by: Mar 1 2024, 5:00PM)  #4"), reminders.check().lines());
+        assertNull(reminders.check());
+
+        tasks.remove("#4", ui, storage);
+        clock.advance(Duration.ofHours(2));
+        Response r = reminders.check();
+        assertEquals(" 2.[D][ ] return book (by: Mar 1 2024, 3:00PM)  #2", r.lines().get(1));
+        assertEquals(2, r.lineCount());
+
+        tasks.toggle("#3", true, ui, storage);
+        clock.advance(Duration.ofDays(1));
+        assertNull(reminders.check());
+        tasks.toggle("#3", false, ui, storage);
+        assertEquals(" 3.[E][ ] book fair (from: Mar 3 2024, 12:00PM to: Mar 4 2024, 12:00PM)  #3",
+                reminders.check().lines().get(1));
+    }
+}
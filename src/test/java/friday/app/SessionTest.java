@@ -0,0 +1,50 @@
+package friday.app;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import friday.model.Task;
+import friday.model.ToDo;
+import friday.storage.Storage;
+import friday.ui.Ui;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SessionTest {
+
+    @TempDir
+    Path tmpDir;
+
+    @Test
+    void addsWhileLoading_landAfterTheLoadedTasks() throws Exception {
+        Path file = tmpDir.resolve("tasks.txt");
+        List<Task> old = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            old.add(new ToDo("old " + i));
+        }
+        Storage seed = new Storage(file);
+        seed.save(old);
+        seed.close();
+
+        Session session = new Session(file);
+        Ui ui = new Ui();
+        session.loadInBackground();
+        session.handle("todo first new", ui);               // held back or added, depending on the race
+        session.handle("todo second new", ui);
+        assertEquals(3, session.handle("find new", ui).lineCount());   // waits for the load
+
+        List<Task> all = session.tasks().all();
+        assertEquals(50_002, all.size());
+        assertEquals("[T][ ] first new", all.get(50_000).display());
+        assertEquals(50_002, all.get(50_001).id());
+        session.close();
+
+        Session reopened = new Session(file);
+        reopened.load();
+        assertEquals("[T][ ] second new", reopened.tasks().get(50_002).display());
+    }
+}
@@ -0,0 +1,56 @@
+package friday.logic;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DateInputTest {
+
+    /** Wednesday, 2 October 2019. */
+    private final DateInput dates = new DateInput(
+            Clock.fixed(LocalDateTime.of(2019, 10, 2, 9, 30).toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+
+    @Test
+    void parse_acceptsExistingShapes() {
+        assertEquals(LocalDateTime.of(2019, 10, 15, 18, 0), dates.parse("2019-10-15 1800"));
+        assertEquals(LocalDateTime.of(2019, 10, 15, 0, 0), dates.parse("2019-10-15"));
+        assertEquals(LocalDateTime.of(2019, 10, 5, 7, 5), dates.parse("5/10/2019 0705"));
+        assertEquals(LocalDateTime.of(2019, 1, 5, 0, 0), dates.parse(" 05/1/2019 "));
+    }
+
+    @Test
+    void parse_acceptsIsoAndRelativeShapes() {
+        assertEquals(LocalDateTime.of(2019, 10, 15, 18, 0, 30), dates.parse("2019-10-15T18:00:30"));
+        assertEquals(LocalDateTime.of(2019, 10, 15, 18, 0), dates.parse("2019-10-15T18:00"));
+        assertEquals(LocalDateTime.of(2019, 10, 2, 0, 0), dates.parse("today"));
+        assertEquals(LocalDateTime.of(2019, 10, 3, 14, 0), dates.parse("Tomorrow 1400"));
+        assertEquals(LocalDateTime.of(2019, 10, 4, 0, 0), dates.parse("fri"));
+        assertEquals(LocalDateTime.of(2019, 10, 2, 9, 0), dates.parse("wednesday 9:00"));
+    }
+
+    @Test
+    void parse_rejectsUnknownOrImpossibleInput() {
+        assertNull(dates.parse("Sunday-ish"));
+        assertNull(dates.parse("2019-02-30"));
+        assertNull(dates.parse("2019-10-15 2500"));
+        assertNull(dates.parse("15/10/19"));
+        assertNull(dates.parse(""));
+    }
+
+    @Test
+    void hasTime_tellsExplicitMidnightFromDateOnly() {
+        assertTrue(dates.hasTime("2019-10-15 0000"));
+        assertTrue(dates.hasTime("2019-10-15T00:00"));
+        assertTrue(dates.hasTime("friday 0:00"));
+        assertFalse(dates.hasTime("2019-10-15"));
+        assertFalse(dates.hasTime(" 15/10/2019 "));
+        assertFalse(dates.hasTime("today"));
+    }
+}
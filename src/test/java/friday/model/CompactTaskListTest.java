@@ -0,0 +1,88 @@
+package friday.model;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import friday.storage.Storage;
+import friday.ui.Ui;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CompactTaskListTest {
+
+    @TempDir
+    Path tmpDir;
+
+    @Test
+    void behavesLikeTaskList() throws Exception {
+        TaskList objects = new TaskList();
+        TaskStore columns = new CompactTaskList();
+        Storage a = new Storage(tmpDir.resolve("a.txt"));
+        Storage b = new Storage(tmpDir.resolve("b.txt"));
+        Ui ui = new Ui();
+        LocalDateTime jan = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (TaskStore tasks : List.of(objects, columns)) {
+            Storage storage = tasks == objects ? a : b;
+            tasks.add(new ToDo("read book"), ui, storage);
+            tasks.add(new Deadline("return book", jan.plusDays(2)), ui, storage);
+            tasks.add(new Event("book fair", jan, jan.plusDays(3)), ui, storage);
+            tasks.add(new ToDo("read book"), ui, storage);
+            tasks.toggle("#2", true, ui, storage);
+            tasks.remove(1, ui, storage);
+        }
+
+        assertEquals(displays(objects.all()), displays(columns.all()));
+        assertEquals(displays(objects.find("BOOK")), displays(columns.find("BOOK")));
+        assertEquals(displays(objects.between(jan, jan.plusDays(2))), displays(columns.between(jan, jan.plusDays(2))));
+        for (SortKey key : SortKey.values()) {
+            List<Task> sorted = columns.sorted(key, 0, 3);
+            assertEquals(displays(objects.sorted(key, 0, 3)), displays(sorted));
+            assertArrayEquals(objects.numbersOf(objects.sorted(key, 0, 3)), columns.numbersOf(sorted));
+        }
+
+        columns.removeAll(Selection.parse("done"), ui, b);
+        b.flush();
+        TaskStore reloaded = new CompactTaskList();
+        reloaded.setAll(new Storage(tmpDir.resolve("b.txt")).load());
+        assertEquals(List.of("[E][ ] book fair (from: Jan 1 2024 to: Jan 4 2024)", "[T][ ] read book"),
+                displays(reloaded.all()));
+        assertEquals(4, reloaded.get("#4").id());
+    }
+
+    @Test
+    void removals_keepNumbersAndIdsInStep() throws Exception {
+        CompactTaskList tasks = new CompactTaskList();
+        List<Task> many = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            many.add(new ToDo("task " + i));
+        }
+        tasks.setAll(many);
+        Storage storage = new Storage(tmpDir.resolve("c.txt"));
+        Ui ui = new Ui();
+        tasks.remove("#2", ui, storage);
+        tasks.removeAll(Selection.parse("10-3000"), ui, storage);     // enough dead rows to copy the columns
+        tasks.remove(5, ui, storage);
+
+        assertEquals(2007, tasks.size());
+        assertEquals("[T][ ] task 4", tasks.get(4).display());
+        assertEquals("[T][ ] task 3001", tasks.get(9).display());
+        assertEquals(3002, tasks.get("#3002").id());
+        assertEquals(9, tasks.numbersOf(List.of(tasks.get("#3002")))[0]);
+        tasks.toggle("#4000", true, ui, storage);
+        assertEquals("[T][X] task 3999", tasks.get("#4000").display());
+    }
+
+    private static List<String> displays(List<Task> tasks) {
+        List<String> out = new ArrayList<>();
+        for (Task t : tasks) {
+            out.add(t.display());
+        }
+        return out;
+    }
+}
@@ -0,0 +1,65 @@
+package friday.model;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import friday.exception.FridayException;
+import friday.storage.Storage;
+import friday.ui.Ui;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskListBulkTest {
+
+    @TempDir
+    Path tmpDir;
+
+    @Test
+    void rangesAndPredicates_changeTheSelectedTasksAndPersist() throws Exception {
+        Path file = tmpDir.resolve("tasks.txt");
+        Storage storage = new Storage(file);
+        TaskList tasks = new TaskList();
+        Ui ui = new Ui();
+        List<Task> initial = new ArrayList<>();
+        for (int i = 1; i <= 300; i++) {
+            initial.add(new ToDo(i % 100 == 0 ? "read book " + i : "task " + i));
+        }
+        tasks.setAll(initial);
+        storage.save(tasks.all());
+
+        tasks.toggleAll(Selection.parse("3,7,10-250"), true, ui, storage);
+        assertEquals(243, tasks.all().stream().filter(Task::isDone).count());
+        tasks.toggleAll(Selection.parse("find book"), true, ui, storage);
+        assertTrue(tasks.get(300).isDone());
+
+        tasks.removeAll(Selection.parse("done"), ui, storage);
+        assertEquals(56, tasks.size());
+        assertEquals("task 1", tasks.get(1).description());
+        assertEquals("task 251", tasks.get(8).description());
+        storage.flush();
+        assertEquals(56, new Storage(file).load().size());
+
+        tasks.removeAll(Selection.parse("all"), ui, storage);
+        assertEquals(0, tasks.size());
+    }
+
+    @Test
+    void invalidSelection_changesNothing() throws Exception {
+        Storage storage = new Storage(tmpDir.resolve("tasks.txt"));
+        TaskList tasks = new TaskList();
+        tasks.setAll(List.of(new ToDo("a"), new ToDo("b")));
+
+        assertThrows(FridayException.class, () -> tasks.removeAll(Selection.parse("1,3"), new Ui(), storage));
+        assertThrows(FridayException.class, () -> Selection.parse("1-x"));
+        assertEquals(2, tasks.size());
+        assertFalse(Selection.parse("1-1").isSingle());
+        assertTrue(Selection.parse("#2").isSingle());
+    }
+}
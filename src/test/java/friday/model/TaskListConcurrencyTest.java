@@ -0,0 +1,99 @@
+package friday.model;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import friday.storage.Storage;
+import friday.ui.Ui;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskListConcurrencyTest {
+    private static final int SEED = 1000;
+    private static final int WRITERS = 2;
+    private static final int READERS = 4;
+    private static final int ADDS = 2000;
+
+    @TempDir
+    Path tmpDir;
+
+    @Test
+    void readersSeeConsistentStateWhileWritersChangeTheList() throws Exception {
+        TaskList tasks = new TaskList();
+        Ui ui = new Ui();
+        Storage storage = new Storage(tmpDir.resolve("tasks.txt"));
+        List<Task> seed = new ArrayList<>();
+        for (int i = 0; i < SEED; i++) {
+            seed.add(new ToDo("seed " + i));
+        }
+        tasks.setAll(seed);
+
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + READERS);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            writers.add(pool.submit(() -> {
+                for (int i = 0; i < ADDS; i++) {
+                    tasks.add(new ToDo("writer " + writer + " task " + i), ui, storage);
+                    if (i % 2 == 0) {
+                        tasks.toggle(1, i % 4 == 0, ui, storage);
+                        tasks.remove(1, ui, storage);
+                    }
+                }
+                return null;
+            }));
+        }
+        List<Future<?>> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            readers.add(pool.submit(() -> {
+                while (writing.get()) {
+                    List<Task> snapshot = tasks.all();
+                    assertThrows(UnsupportedOperationException.class, () -> snapshot.add(new ToDo("x")));
+                    for (Task t : snapshot.subList(0, 40)) {
+                        assertNotNull(t);
+                    }
+                    assertEquals(40, tasks.page(0, 40).size());
+                    assertNotNull(tasks.get(1));
+                    for (Task t : tasks.find("task 1")) {
+                        assertTrue(t.description().contains("task 1"));
+                    }
+                    reads.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : writers) {
+            f.get(60, TimeUnit.SECONDS);
+        }
+        writing.set(false);
+        for (Future<?> f : readers) {
+            f.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        storage.close();
+
+        int expected = SEED + WRITERS * ADDS - WRITERS * ADDS / 2;
+        assertEquals(expected, tasks.size());
+        assertEquals(tasks.all(), tasks.page(0, expected));
+        long scanned = tasks.all().stream().filter(t -> t.description().contains("task 1")).count();
+        assertEquals(scanned, tasks.find("task 1").size());
+        assertTrue(reads.get() > 0);
+        assertEquals(tasks.all().stream().map(Task::display).toList(),      // journal order matches list order
+                new Storage(tmpDir.resolve("tasks.txt")).load().stream().map(Task::display).toList());
+    }
+}
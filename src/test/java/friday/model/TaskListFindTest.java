@@ -0,0 +1,48 @@
+package friday.model;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import friday.storage.Storage;
+import friday.ui.Ui;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskListFindTest {
+
+    @TempDir
+    Path tmpDir;
+
+    @Test
+    void find_matchesSubstringsCaseInsensitivelyInListOrder() {
+        TaskList tasks = new TaskList();
+        tasks.setAll(List.of(new ToDo("Read Book"), new ToDo("buy milk"), new ToDo("return the BOOK")));
+
+        List<Task> found = tasks.find("book");
+        assertEquals(2, found.size());
+        assertEquals("[T][ ] Read Book", found.get(0).display());
+        assertEquals("[T][ ] return the BOOK", found.get(1).display());
+        assertEquals(1, tasks.find("d b").size());      // spans a word boundary
+        assertEquals(2, tasks.find("e").size());        // shorter than a trigram
+        assertTrue(tasks.find("novel").isEmpty());
+    }
+
+    @Test
+    void find_followsAddAndRemove() throws Exception {
+        TaskList tasks = new TaskList();
+        Ui ui = new Ui();
+        Storage storage = new Storage(tmpDir.resolve("tasks.txt"));
+
+        tasks.add(new ToDo("read book"), ui, storage);
+        tasks.add(new ToDo("return book"), ui, storage);
+        tasks.remove(1, ui, storage);
+
+        List<Task> found = tasks.find("book");
+        assertEquals(1, found.size());
+        assertEquals("[T][ ] return book", found.get(0).display());
+    }
+}
@@ -0,0 +1,40 @@
+package friday.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TaskListScheduleTest {
+
+    private static final LocalDateTime JAN_1 = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private TaskList sample() {
+        TaskList tasks = new TaskList();
+        tasks.setAll(List.of(
+                new ToDo("Maya Hansen"),
+                new Deadline("Solve Extremis", JAN_1.plusDays(2)),
+                new Event("New Year's Party", JAN_1.minusDays(1), JAN_1.plusHours(2)),
+                new Deadline("Pay Happy", JAN_1.plusHours(9)),
+                new Event("Expo", JAN_1.plusDays(5), JAN_1.plusDays(6))));
+        return tasks;
+    }
+
+    @Test
+    void between_returnsDeadlinesInsideAndEventsOverlappingTheRange() {
+        List<Task> found = sample().between(JAN_1, JAN_1.plusDays(1));
+        assertEquals(2, found.size());
+        assertEquals("[E][ ] New Year's Party (from: Dec 31 1999 to: Jan 1 2000, 2:00AM)", found.get(0).display());
+        assertEquals("[D][ ] Pay Happy (by: Jan 1 2000, 9:00AM)", found.get(1).display());
+    }
+
+    @Test
+    void dueBy_returnsOnlyDeadlinesEarliestFirst() {
+        List<Task> found = sample().dueBy(JAN_1.plusDays(3));
+        assertEquals(2, found.size());
+        assertEquals("[D][ ] Pay Happy (by: Jan 1 2000, 9:00AM)", found.get(0).display());
+        assertEquals("[D][ ] Solve Extremis (by: Jan 3 2000)", found.get(1).display());
+    }
+}
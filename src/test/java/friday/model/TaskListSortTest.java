@@ -0,0 +1,45 @@
+package friday.model;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import friday.storage.Storage;
+import friday.ui.Ui;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TaskListSortTest {
+
+    @TempDir
+    Path tmpDir;
+
+    @Test
+    void sorted_followsMutationsWithoutReorderingTheList() throws Exception {
+        TaskList tasks = new TaskList();
+        Ui ui = new Ui();
+        Storage storage = new Storage(tmpDir.resolve("tasks.txt"));
+        Task zed = new ToDo("zed");
+        Task party = new Event("party", LocalDateTime.of(2024, 5, 1, 0, 0), LocalDateTime.of(2024, 5, 2, 0, 0));
+        Task alpha = new Deadline("alpha", LocalDateTime.of(2024, 1, 1, 0, 0));
+        tasks.setAll(List.of(zed, party));
+
+        assertEquals(List.of(party, zed), tasks.sorted(SortKey.TIME, 0, 2));
+        tasks.add(alpha, ui, storage);
+        assertEquals(List.of(alpha, party, zed), tasks.sorted(SortKey.TIME, 0, 3));
+        assertEquals(List.of(alpha, zed, party), tasks.sorted(SortKey.TYPE, 0, 3));
+
+        assertEquals(List.of(zed, party, alpha), tasks.sorted(SortKey.DONE, 0, 3));
+        tasks.toggle(1, true, ui, storage);
+        assertEquals(List.of(party, alpha, zed), tasks.sorted(SortKey.DONE, 0, 3));
+
+        tasks.remove(2, ui, storage);
+        assertEquals(List.of(zed), tasks.sorted(SortKey.DESC, 1, 2));
+        assertEquals(List.of(zed, alpha), tasks.all());
+        assertArrayEquals(new int[] {2, 1}, tasks.numbersOf(tasks.sorted(SortKey.DESC, 0, 2)));
+    }
+}
@@ -0,0 +1,96 @@
+package friday.model;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import friday.exception.FridayException;
+import friday.logic.BatchRunner;
+import friday.logic.Parser;
+import friday.storage.Storage;
+import friday.ui.Ui;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TaskListUndoTest {
+
+    @TempDir
+    Path tmpDir;
+
+    @Test
+    void undoAndRedo_restoreListIndexesAndFile() throws Exception {
+        TaskList tasks = new TaskList();
+        Storage storage = new Storage(tmpDir.resolve("tasks.txt"));
+        Ui ui = new Ui();
+        tasks.add(new ToDo("read book"), ui, storage);
+        tasks.add(new Deadline("return book", LocalDateTime.of(2024, 1, 2, 0, 0)), ui, storage);
+        tasks.add(new ToDo("borrow book"), ui, storage);
+        tasks.add(new ToDo("buy milk"), ui, storage);
+        List<String> original = displays(tasks.all());
+
+        tasks.removeAll(Selection.parse("1,3"), ui, storage);
+        tasks.toggle("#4", true, ui, storage);
+        tasks.sortByType();
+        assertEquals(List.of("[D][ ] return book (by: Jan 2 2024)", "[T][X] buy milk"), displays(tasks.all()));
+
+        tasks.undo(ui, storage);
+        tasks.undo(ui, storage);
+        assertEquals(List.of("[D][ ] return book (by: Jan 2 2024)", "[T][ ] buy milk"), displays(tasks.all()));
+        assertEquals(" Undone: your delete of 2 tasks.", tasks.undo(ui, storage).lines().get(0));
+        assertEquals(original, displays(tasks.all()));
+        assertEquals(List.of("[T][ ] read book", "[D][ ] return book (by: Jan 2 2024)", "[T][ ] borrow book"),
+                displays(tasks.find("book")));
+        assertEquals(1, tasks.get("#1").id());
+
+        storage.flush();
+        TaskList reloaded = new TaskList();
+        reloaded.setAll(new Storage(tmpDir.resolve("tasks.txt")).load());
+        assertEquals(original, displays(reloaded.all()));
+
+        tasks.redo(ui, storage);
+        assertEquals(List.of("[D][ ] return book (by: Jan 2 2024)", "[T][ ] buy milk"), displays(tasks.all()));
+        tasks.add(new ToDo("walk dog"), ui, storage);
+        assertEquals(" There is nothing to redo.", tasks.redo(ui, storage).lines().get(0));
+        tasks.undo(ui, storage);
+        assertEquals(List.of("[D][ ] return book (by: Jan 2 2024)", "[T][ ] buy milk"), displays(tasks.all()));
+    }
+
+    @Test
+    void failedScript_reversesItsChangesAndKeepsHistory() throws Exception {
+        TaskList tasks = new TaskList();
+        Storage storage = new Storage(tmpDir.resolve("tasks.txt"));
+        Ui ui = new Ui();
+        tasks.add(new ToDo("read book"), ui, storage);
+        tasks.add(new Deadline("return book", LocalDateTime.of(2024, 1, 2, 0, 0)), ui, storage);
+        tasks.add(new ToDo("buy milk"), ui, storage);
+        tasks.toggle("1", true, ui, storage);
+        List<String> before = displays(tasks.all());
+
+        List<String> script = List.of("delete 2", "undo", "undo", "todo walk dog", "sort", "mark 2-3",
+                "delete #1", "delete 9");
+        assertThrows(FridayException.class,
+                () -> new BatchRunner(new Parser()).run(script, tasks, ui, storage, BatchRunner.AT_END));
+        assertEquals(before, displays(tasks.all()));
+        assertEquals(List.of("[T][X] read book"), displays(tasks.find("read")));
+
+        tasks.undo(ui, storage);                // the mark made before the script
+        assertEquals("[T][ ] read book", tasks.get(1).display());
+        storage.flush();
+        TaskList reloaded = new TaskList();
+        reloaded.setAll(new Storage(tmpDir.resolve("tasks.txt")).load());
+        assertEquals(displays(tasks.all()), displays(reloaded.all()));
+    }
+
+    private static List<String> displays(List<Task> tasks) {
+        List<String> out = new ArrayList<>();
+        for (Task t : tasks) {
+            out.add(t.display());
+        }
+        return out;
+    }
+}
@@ -0,0 +1,67 @@
+package friday.storage;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import friday.model.Deadline;
+import friday.model.Event;
+import friday.model.Task;
+import friday.model.ToDo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BinaryStoreTest {
+
+    @TempDir
+    Path tmpDir;
+
+    @Test
+    void textToBinaryAndBack_isLossless() throws Exception {
+        Path txt = tmpDir.resolve("tasks.txt");
+        Files.write(txt, List.of(
+                "T | 0 | Maya Hansen | #1",
+                "D | 1 | Solve Extremis | 2000-01-01T00:00 | #2",
+                "E | 0 | Café party | 1999-12-31T18:30 | 2000-01-01T02:00 | #7"));
+        Path bin = tmpDir.resolve("tasks.bin");
+        Path back = tmpDir.resolve("back.txt");
+
+        BinaryStore.main(new String[] {"txt2bin", txt.toString(), bin.toString()});
+        BinaryStore.main(new String[] {"bin2txt", bin.toString(), back.toString()});
+
+        assertEquals(Files.readAllLines(txt), Files.readAllLines(back));
+    }
+
+    @Test
+    void storageWithBinSuffix_savesAndLoadsBinarySnapshot() throws Exception {
+        Path bin = tmpDir.resolve("tasks.bin");
+        LocalDateTime noon = LocalDateTime.of(2024, 3, 1, 12, 0);
+        List<Task> tasks = List.of(new ToDo("read"), new Deadline("file", noon), new Event("talk", noon, noon));
+
+        Storage storage = new Storage(bin);
+        storage.save(tasks);
+        storage.close();
+        List<Task> loaded = new Storage(bin).load();
+
+        assertEquals(3, loaded.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).display(), loaded.get(i).display());
+            assertEquals(i + 1, loaded.get(i).id());        // tasks saved without ids get them in list order
+        }
+    }
+
+    @Test
+    void openedFile_canBeWrittenOverWhileInUse() throws Exception {
+        Path bin = tmpDir.resolve("tasks.bin");
+        BinaryStore.write(bin, List.of(new ToDo("read"), new ToDo("write")));
+        List<Task> opened = BinaryStore.open(bin);
+
+        BinaryStore.write(bin, opened.subList(1, 2));
+        assertEquals("[T][ ] read", opened.get(0).display());
+        assertEquals(1, BinaryStore.open(bin).size());
+    }
+}
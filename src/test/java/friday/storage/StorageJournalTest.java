@@ -0,0 +1,157 @@
+package friday.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import friday.model.Task;
+import friday.model.TaskList;
+import friday.model.ToDo;
+import friday.ui.Ui;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StorageJournalTest {
+
+    @TempDir
+    Path tmpDir;
+
+    @Test
+    void mutations_areReplayedFromJournalOnLoad() throws Exception {
+        Path file = tmpDir.resolve("tasks.txt");
+        Storage storage = new Storage(file);
+        TaskList tasks = new TaskList();
+        Ui ui = new Ui();
+
+        tasks.add(new ToDo("read book"), ui, storage);
+        tasks.add(new ToDo("return book"), ui, storage);
+        tasks.add(new ToDo("buy milk"), ui, storage);
+        tasks.toggle(3, true, ui, storage);
+        tasks.remove(1, ui, storage);
+        storage.flush();
+
+        assertTrue(Files.exists(tmpDir.resolve("tasks.txt.journal")));
+        List<Task> loaded = new Storage(file).load();
+        assertEquals(2, loaded.size());
+        assertEquals("[T][ ] return book", loaded.get(0).display());
+        assertEquals("[T][X] buy milk", loaded.get(1).display());
+    }
+
+    @Test
+    void journal_isCompactedIntoSnapshot() throws Exception {
+        Path file = tmpDir.resolve("tasks.txt");
+        Storage storage = new Storage(file, 2);
+        TaskList tasks = new TaskList();
+        Ui ui = new Ui();
+
+        tasks.add(new ToDo("read book"), ui, storage);
+        tasks.add(new ToDo("return book"), ui, storage);
+        storage.flush();
+
+        assertFalse(Files.exists(tmpDir.resolve("tasks.txt.journal")));
+        assertEquals(2, Files.readAllLines(file).size());
+        assertEquals(2, new Storage(file).load().size());
+    }
+
+    @Test
+    void loadedFile_canBeSavedOver() throws Exception {
+        Path file = tmpDir.resolve("tasks.txt");
+        Files.write(file, List.of("T | 0 | read book | #1", "T | 0 | return book | #2"));
+        Storage storage = new Storage(file);
+        List<Task> loaded = storage.load();
+
+        storage.save(loaded.subList(1, 2));        // replaces the file that was just read
+        storage.flush();
+        assertEquals(List.of("T | 0 | return book | #2"), Files.readAllLines(file));
+    }
+
+    @Test
+    void ids_surviveReloadAndAddressTasks() throws Exception {
+        Path file = tmpDir.resolve("tasks.txt");
+        Storage storage = new Storage(file);
+        TaskList tasks = new TaskList();
+        Ui ui = new Ui();
+
+        tasks.add(new ToDo("read book"), ui, storage);
+        tasks.add(new ToDo("return book"), ui, storage);
+        tasks.add(new ToDo("buy milk"), ui, storage);
+        tasks.remove("#1", ui, storage);
+        tasks.toggle("#3", true, ui, storage);
+        storage.flush();
+
+        TaskList reloaded = new TaskList();
+        reloaded.setAll(new Storage(file).load());
+        assertEquals(2, reloaded.get("#2").id());
+        assertEquals("[T][X] buy milk", reloaded.get("#3").display());
+        assertEquals("[T][X] buy milk", reloaded.get("2").display());
+    }
+
+    @Test
+    void legacyPositionalJournal_isStillReplayed() throws Exception {
+        Path file = tmpDir.resolve("tasks.txt");
+        Files.write(file, List.of("T | 0 | read book", "T | 0 | return book"));
+        Files.write(tmpDir.resolve("tasks.txt.journal"), List.of("MARK | 1", "DEL | 0"));
+
+        List<Task> loaded = new Storage(file).load();
+        assertEquals(1, loaded.size());
+        assertEquals("[T][X] return book", loaded.get(0).display());
+        assertEquals(2, loaded.get(0).id());
+    }
+
+    @Test
+    void crashAfterSnapshotMovedIn_dropsRetiredJournal() throws Exception {
+        Path file = tmpDir.resolve("tasks.txt");
+        Files.write(file, List.of());               // a snapshot that dropped the tasks without a DEL record
+        Path retired = tmpDir.resolve("tasks.txt.journal.old");
+        Files.write(retired, List.of("ADD | T | 0 | read book | #1", "ADD | T | 0 | return book | #2", "DEL | #1"));
+
+        Storage storage = new Storage(file);
+        assertTrue(storage.load().isEmpty());
+        assertEquals(0, storage.skippedLines());
+        assertFalse(Files.exists(retired));
+    }
+
+    @Test
+    void crashBeforeSnapshotMovedIn_finishesTheMove() throws Exception {
+        Path file = tmpDir.resolve("tasks.txt");
+        Files.write(file, List.of("T | 0 | read book | #1"));
+        Files.write(tmpDir.resolve("tasks.txt.tmp"), List.of("T | 0 | read book | #1", "T | 1 | return book | #2"));
+        Files.write(tmpDir.resolve("tasks.txt.journal.old"), List.of("ADD | T | 0 | return book | #2", "MARK | #2"));
+
+        List<Task> loaded = new Storage(file).load();
+        assertEquals(2, loaded.size());
+        assertEquals("[T][X] return book", loaded.get(1).display());
+        assertFalse(Files.exists(tmpDir.resolve("tasks.txt.tmp")));
+        assertFalse(Files.exists(tmpDir.resolve("tasks.txt.journal.old")));
+    }
+
+    @Test
+    void failedWrite_isRetriedRatherThanLost() throws Exception {
+        Path file = tmpDir.resolve("tasks.txt");
+        Path journal = tmpDir.resolve("tasks.txt.journal");
+        Files.createDirectories(journal.resolve("blocker"));      // the journal cannot be opened
+        Storage storage = new Storage(file);
+        TaskList tasks = new TaskList();
+        Ui ui = new Ui();
+
+        tasks.add(new ToDo("read book"), ui, storage);
+        assertThrows(IOException.class, storage::flush);
+
+        Files.delete(journal.resolve("blocker"));
+        Files.delete(journal);
+        tasks.add(new ToDo("return book"), ui, storage);
+        storage.close();
+
+        List<Task> loaded = new Storage(file).load();
+        assertEquals(2, loaded.size());
+        assertEquals("[T][ ] read book", loaded.get(0).display());
+        assertEquals("[T][ ] return book", loaded.get(1).display());
+    }
+}
@@ -1,30 +1,31 @@
 #!/usr/bin/env bash
 
+# run from this script's directory so every path below is relative to the repo
+cd "$(dirname "$0")" || exit 1
+
 # create bin directory if it doesn't exist
-if [ ! -d "~/Documents/GitHub/ip/bin" ]
-then
-    mkdir ~/Documents/GitHub/ip/bin
-fi
+mkdir -p ../bin
 
-# delete output from previous run
-if [ -e "./ACTUAL.TXT" ]
-then
-    rm ACTUAL.TXT
-fi
+# delete output and saved tasks from the previous run
+rm -f ACTUAL.TXT
+rm -rf data
 
 # compile the code into the bin folder, terminates if error occurred
-if ! javac -cp ~/Documents/GitHub/ip/src/main/java -Xlint:none -d ~/Documents/GitHub/ip/bin ~/Documents/GitHub/ip/src/main/java/*.java
+if ! javac -encoding UTF-8 -Xlint:none -d ../bin $(find ../src/main/java/friday -name '*.java')
 then
     echo "********** BUILD FAILURE **********"
     exit 1
 fi
 
 # run the program, feed commands from input.txt file and redirect the output to the ACTUAL.TXT
-java -classpath ~/Documents/GitHub/ip/bin Friday < input.txt > ACTUAL.TXT
+java -classpath ../bin friday.app.Friday < input.txt > ACTUAL.TXT
 
-# convert to UNIX format
+# convert to UNIX format, if dos2unix is available
 cp EXPECTED.TXT EXPECTED-UNIX.TXT
-dos2unix ACTUAL.TXT EXPECTED-UNIX.TXT
+if command -v dos2unix > /dev/null
+then
+    dos2unix ACTUAL.TXT EXPECTED-UNIX.TXT
+fi
 
 # compare the output to the expected output
 diff ACTUAL.TXT EXPECTED-UNIX.TXT
@@ -35,4 +36,4 @@ then
 else
     echo "Test result: FAILED"
     exit 1
-fi
\ No newline at end of file
+fi